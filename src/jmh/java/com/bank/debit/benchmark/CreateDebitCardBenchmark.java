@@ -0,0 +1,45 @@
+package com.bank.debit.benchmark;
+
+import com.bank.debit.model.CreateDebitCardRequest;
+import com.bank.debit.model.DebitCardResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * DebitService.createDebitCard end to end: concurrent customer/account validation
+ * against the stubs plus the upsert. Every invocation uses a new customer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CreateDebitCardBenchmark {
+
+    private final AtomicLong customerSequence = new AtomicLong();
+    private DebitServiceFixture fixture;
+
+    @Setup
+    public void setUp() {
+        fixture = new DebitServiceFixture();
+    }
+
+    @Setup(Level.Iteration)
+    public void clearCards() {
+        fixture.clearCards();
+    }
+
+    @Benchmark
+    public DebitCardResponse createDebitCard() {
+        CreateDebitCardRequest request = new CreateDebitCardRequest()
+                .customerId("cust-" + customerSequence.incrementAndGet())
+                .primaryAccountId(DebitServiceFixture.FUNDED_ACCOUNT);
+        return fixture.debitService().createDebitCard(request).block();
+    }
+}
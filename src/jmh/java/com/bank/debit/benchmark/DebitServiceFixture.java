@@ -0,0 +1,141 @@
+package com.bank.debit.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.bank.debit.cache.BalanceHintCache;
+import com.bank.debit.cache.DebitCardCache;
+import com.bank.debit.cache.ReactiveLookupCache;
+import com.bank.debit.client.AccountClient;
+import com.bank.debit.client.CustomerClient;
+import com.bank.debit.client.RequestHedger;
+import com.bank.debit.client.TransactionClient;
+import com.bank.debit.config.DebitEventProperties;
+import com.bank.debit.config.HedgingProperties;
+import com.bank.debit.config.StatusProjectionProperties;
+import com.bank.debit.event.DebitEventPublisher;
+import com.bank.debit.logging.TransactionLogSampler;
+import com.bank.debit.mapper.DebitMapper;
+import com.bank.debit.metrics.DebitMetrics;
+import com.bank.debit.model.dto.AccountResponse;
+import com.bank.debit.model.dto.CustomerResponse;
+import com.bank.debit.model.entity.Debit;
+import com.bank.debit.model.enums.ValidationMode;
+import com.bank.debit.model.enums.WithdrawalStrategy;
+import com.bank.debit.projection.StatusProjectionService;
+import com.bank.debit.service.DebitService;
+import com.bank.debit.validator.DebitValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * DebitService wired by hand against stubbed WebClient exchanges and an in-memory
+ * repository. Balance hints and lookup caches keep nothing, so every operation reaches
+ * the stubs and the fallback depth stays the one the benchmark asks for. The debit card
+ * cache works as in production.
+ */
+final class DebitServiceFixture {
+
+    static final String FUNDED_ACCOUNT = "acc-funded";
+
+    private final InMemoryDebitRepository cards = InMemoryDebitRepository.create();
+    private final DebitService debitService;
+
+    DebitServiceFixture() {
+        // Benchmarks measure the code path, not the console
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DebitMetrics debitMetrics = new DebitMetrics(meterRegistry);
+        RequestHedger requestHedger = new RequestHedger(new HedgingProperties(), meterRegistry);
+
+        AccountClient accountClient = new AccountClient(
+                WebClient.builder().exchangeFunction(StubExchanges.accountService()),
+                "http://account-service", debitMetrics, requestHedger);
+        CustomerClient customerClient = new CustomerClient(
+                WebClient.builder().exchangeFunction(StubExchanges.customerService()),
+                "http://customer-service", debitMetrics, requestHedger);
+        TransactionClient transactionClient = new TransactionClient(
+                WebClient.builder().exchangeFunction(StubExchanges.transactionService()),
+                "http://transaction-service", false, "/api/transactions/withdrawal/bulk", 50,
+                Duration.ofMillis(5), 8, Duration.ofMinutes(5), Duration.ofSeconds(5), debitMetrics);
+
+        BalanceHintCache balanceHintCache = new BalanceHintCache(Duration.ZERO, 1, false);
+        ReactiveLookupCache<CustomerResponse> customerLookupCache = new ReactiveLookupCache<>(
+                "customerLookup", Duration.ZERO, 1, customerClient::getCustomerById, meterRegistry);
+        ReactiveLookupCache<AccountResponse> accountLookupCache = new ReactiveLookupCache<>(
+                "accountLookup", Duration.ZERO, 1, accountClient::getAccount, meterRegistry);
+
+        // Projection and events disabled (defaults): neither touches its repository
+        StatusProjectionService statusProjectionService = new StatusProjectionService(
+                null, null, new StatusProjectionProperties(), customerLookupCache, accountLookupCache);
+        DebitEventPublisher debitEventPublisher = new DebitEventPublisher(
+                null, new ObjectMapper(), new DebitEventProperties(), null);
+
+        DebitValidator debitValidator = new DebitValidator(
+                accountLookupCache, customerLookupCache, statusProjectionService, ObservationRegistry.NOOP);
+        DebitCardCache debitCardCache = new DebitCardCache(
+                cards.asRepository(), null, meterRegistry, Duration.ofMinutes(5), 50_000, false);
+
+        // IdempotencyService is only used with an Idempotency-Key, which the benchmarks don't send
+        debitService = new DebitService(accountClient, customerClient, cards.asRepository(), debitValidator,
+                new DebitMapper(), transactionClient, balanceHintCache, debitCardCache, null, debitEventPublisher,
+                debitMetrics, ObservationRegistry.NOOP, new TransactionLogSampler(0));
+
+        ReflectionTestUtils.setField(debitService, "withdrawalStrategy", WithdrawalStrategy.SEQUENTIAL);
+        ReflectionTestUtils.setField(debitService, "balanceLookupConcurrency", 4);
+        ReflectionTestUtils.setField(debitService, "batchConcurrency", 16);
+        ReflectionTestUtils.setField(debitService, "batchMaxSize", 5000);
+        ReflectionTestUtils.setField(debitService, "listingDefaultPageSize", 100);
+        ReflectionTestUtils.setField(debitService, "listingMaxPageSize", 1000);
+        ReflectionTestUtils.setField(debitService, "lookupMaxKeys", 500);
+        ReflectionTestUtils.setField(debitService, "validationMode", ValidationMode.FAIL_FAST);
+        ReflectionTestUtils.setField(debitService, "optimisticLockMaxRetries", 3);
+    }
+
+    DebitService debitService() {
+        return debitService;
+    }
+
+    /**
+     * Store an active card whose first {@code shortAccounts} associated accounts reject the
+     * withdrawal, followed by one funded account
+     */
+    String seedCard(int shortAccounts) {
+        List<String> accounts = new ArrayList<>();
+        for (int i = 0; i < shortAccounts; i++) {
+            accounts.add(StubExchanges.SHORT_ACCOUNT_PREFIX + i);
+        }
+        accounts.add(FUNDED_ACCOUNT);
+
+        Debit card = sampleCard("card-depth-" + shortAccounts, accounts);
+        cards.put(card);
+        return card.getId();
+    }
+
+    void clearCards() {
+        cards.clear();
+    }
+
+    static Debit sampleCard(String id, List<String> accounts) {
+        return Debit.builder()
+                .id(id)
+                .customerId("cust-" + id)
+                .primaryAccountId(accounts.get(0))
+                .associatedAccounts(new ArrayList<>(accounts))
+                .cardNumber("****-****-****-1234")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .active(true)
+                .version(0L)
+                .build();
+    }
+}
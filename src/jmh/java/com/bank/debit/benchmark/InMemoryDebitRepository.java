@@ -0,0 +1,102 @@
+package com.bank.debit.benchmark;
+
+import com.bank.debit.model.entity.Debit;
+import com.bank.debit.repository.DebitRepository;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * DebitRepository backed by a map, implementing only the methods on the benchmarked paths.
+ * Cards are also indexed by customerId, as the Mongo collection is, so customer lookups
+ * don't scan every card.
+ */
+final class InMemoryDebitRepository implements InvocationHandler {
+
+    private final Map<String, Debit> cards = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> cardIdsByCustomer = new ConcurrentHashMap<>();
+
+    private InMemoryDebitRepository() {
+    }
+
+    static InMemoryDebitRepository create() {
+        return new InMemoryDebitRepository();
+    }
+
+    DebitRepository asRepository() {
+        return (DebitRepository) Proxy.newProxyInstance(
+                DebitRepository.class.getClassLoader(), new Class<?>[] {DebitRepository.class}, this);
+    }
+
+    void put(Debit debit) {
+        Debit previous = cards.put(debit.getId(), debit);
+        if (previous != null && !Objects.equals(previous.getCustomerId(), debit.getCustomerId())) {
+            cardsOf(previous.getCustomerId()).remove(previous.getId());
+        }
+        cardIdsByCustomer.computeIfAbsent(debit.getCustomerId(), key -> ConcurrentHashMap.newKeySet())
+                .add(debit.getId());
+    }
+
+    void clear() {
+        cards.clear();
+        cardIdsByCustomer.clear();
+    }
+
+    private Set<String> cardsOf(Object customerId) {
+        return cardIdsByCustomer.getOrDefault(customerId, Set.of());
+    }
+
+    private Stream<Debit> findByCustomerId(Object customerId) {
+        return cardsOf(customerId).stream()
+                .map(cards::get)
+                .filter(Objects::nonNull);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "findById":
+                return Mono.justOrEmpty(cards.get((String) args[0]));
+            case "findAllById":
+                return Flux.fromIterable((Iterable<String>) args[0]).mapNotNull(cards::get);
+            case "save":
+                put((Debit) args[0]);
+                return Mono.just(args[0]);
+            case "insertIfAbsent":
+                return Mono.just(insertIfAbsent((Debit) args[0]));
+            case "findByCustomerIdAndActiveTrue":
+                return Mono.justOrEmpty(findByCustomerId(args[0])
+                        .filter(Debit::isActive)
+                        .findFirst());
+            case "findByCustomerId":
+                return Mono.justOrEmpty(findByCustomerId(args[0]).findFirst());
+            case "toString":
+                return "InMemoryDebitRepository";
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    private synchronized Debit insertIfAbsent(Debit debit) {
+        return findByCustomerId(debit.getCustomerId())
+                .filter(card -> Objects.equals(card.getPrimaryAccountId(), debit.getPrimaryAccountId()))
+                .findFirst()
+                .orElseGet(() -> {
+                    debit.setVersion(0L);
+                    put(debit);
+                    return debit;
+                });
+    }
+}
@@ -0,0 +1,44 @@
+package com.bank.debit.benchmark;
+
+import com.bank.debit.model.DebitTransactionResponse;
+import com.bank.debit.model.DebitTransactionRequest;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * DebitService.processTransaction end to end. fallbackDepth is the number of associated
+ * accounts rejected for insufficient funds before the funded one, i.e. how deep
+ * tryWithdrawalOnAccounts recurses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProcessTransactionBenchmark {
+
+    @Param({"0", "1", "3"})
+    public int fallbackDepth;
+
+    private DebitServiceFixture fixture;
+    private DebitTransactionRequest request;
+
+    @Setup
+    public void setUp() {
+        fixture = new DebitServiceFixture();
+        request = new DebitTransactionRequest()
+                .debitCardId(fixture.seedCard(fallbackDepth))
+                .amount(100.0)
+                .description("Retiro benchmark");
+    }
+
+    @Benchmark
+    public DebitTransactionResponse processTransaction() {
+        return fixture.debitService().processTransaction(request).block();
+    }
+}
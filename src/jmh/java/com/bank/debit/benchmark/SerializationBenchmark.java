@@ -0,0 +1,102 @@
+package com.bank.debit.benchmark;
+
+import com.bank.debit.mapper.DebitMapper;
+import com.bank.debit.model.DebitCardResponse;
+import com.bank.debit.model.DebitTransactionResponse;
+import com.bank.debit.model.dto.TransactionResponse;
+import com.bank.debit.model.entity.Debit;
+import com.bank.debit.model.enums.TransactionStatus;
+import com.bank.debit.model.enums.TransactionType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * DebitMapper.toResponse and Jackson (de)serialization of the hot-path payloads, with
+ * the ObjectMapper configured like the WebFlux codecs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializationBenchmark {
+
+    private final DebitMapper debitMapper = new DebitMapper();
+    private ObjectMapper objectMapper;
+    private Debit card;
+    private DebitTransactionResponse debitTransactionResponse;
+    private TransactionResponse transactionResponse;
+    private String debitTransactionResponseJson;
+    private String transactionResponseJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        card = DebitServiceFixture.sampleCard("card-1", List.of("acc-1", "acc-2", "acc-3"));
+
+        debitTransactionResponse = new DebitTransactionResponse()
+                .transactionId("tx-1")
+                .debitCardId("card-1")
+                .accountId("acc-1")
+                .amount(100.0)
+                .description("Retiro en cajero")
+                .timestamp(OffsetDateTime.now(ZoneOffset.UTC))
+                .status("COMPLETED");
+
+        transactionResponse = TransactionResponse.builder()
+                .id("tx-1")
+                .transactionType(TransactionType.WITHDRAWAL)
+                .amount(new BigDecimal("100.00"))
+                .accountId("acc-1")
+                .customerId("cust-1")
+                .status(TransactionStatus.COMPLETED)
+                .description("Retiro en cajero")
+                .balanceAfter(new BigDecimal("900.00"))
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        debitTransactionResponseJson = objectMapper.writeValueAsString(debitTransactionResponse);
+        transactionResponseJson = objectMapper.writeValueAsString(transactionResponse);
+    }
+
+    @Benchmark
+    public DebitCardResponse mapperToResponse() {
+        return debitMapper.toResponse(card);
+    }
+
+    @Benchmark
+    public String serializeDebitTransactionResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(debitTransactionResponse);
+    }
+
+    @Benchmark
+    public DebitTransactionResponse deserializeDebitTransactionResponse() throws JsonProcessingException {
+        return objectMapper.readValue(debitTransactionResponseJson, DebitTransactionResponse.class);
+    }
+
+    @Benchmark
+    public String serializeTransactionResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(transactionResponse);
+    }
+
+    @Benchmark
+    public TransactionResponse deserializeTransactionResponse() throws JsonProcessingException {
+        return objectMapper.readValue(transactionResponseJson, TransactionResponse.class);
+    }
+}
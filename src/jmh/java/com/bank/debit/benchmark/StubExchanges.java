@@ -0,0 +1,89 @@
+package com.bank.debit.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import reactor.core.publisher.Mono;
+
+/**
+ * Canned downstream responses, so WebClient encoding/decoding runs without a network.
+ * Withdrawals on accounts whose id starts with {@link #SHORT_ACCOUNT_PREFIX} fail for
+ * insufficient funds.
+ */
+final class StubExchanges {
+
+    static final String SHORT_ACCOUNT_PREFIX = "short-";
+
+    private static final ExchangeStrategies STRATEGIES = ExchangeStrategies.withDefaults();
+    private static final AtomicLong TRANSACTION_SEQUENCE = new AtomicLong();
+
+    private StubExchanges() {
+    }
+
+    static ExchangeFunction customerService() {
+        return request -> json("{\"id\":\"" + lastPathSegment(request) + "\",\"active\":true}");
+    }
+
+    static ExchangeFunction accountService() {
+        return request -> json("{\"id\":\"" + lastPathSegment(request)
+                + "\",\"active\":true,\"balance\":1000000.00,\"currency\":\"PEN\"}");
+    }
+
+    static ExchangeFunction transactionService() {
+        return request -> bodyOf(request).flatMap(body -> {
+            boolean shortAccount = body.contains("\"accountId\":\"" + SHORT_ACCOUNT_PREFIX);
+            String status = shortAccount ? "FAILED" : "COMPLETED";
+            String error = shortAccount ? "\"Insufficient funds\"" : "null";
+            return json("{\"id\":\"tx-" + TRANSACTION_SEQUENCE.incrementAndGet()
+                    + "\",\"transactionType\":\"WITHDRAWAL\",\"status\":\"" + status
+                    + "\",\"amount\":100.00,\"balanceAfter\":999900.00,\"errorMessage\":" + error
+                    + ",\"createdAt\":\"2025-12-31T10:30:00\"}");
+        });
+    }
+
+    private static Mono<ClientResponse> json(String body) {
+        return Mono.just(ClientResponse.create(HttpStatus.OK, STRATEGIES)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+    }
+
+    private static String lastPathSegment(ClientRequest request) {
+        String path = request.url().getPath();
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private static Mono<String> bodyOf(ClientRequest request) {
+        MockClientHttpRequest captured = new MockClientHttpRequest(request.method(), request.url());
+        return request.body()
+                .insert(captured, new BodyInserter.Context() {
+                    @Override
+                    public List<HttpMessageWriter<?>> messageWriters() {
+                        return STRATEGIES.messageWriters();
+                    }
+
+                    @Override
+                    public Optional<ServerHttpRequest> serverRequest() {
+                        return Optional.empty();
+                    }
+
+                    @Override
+                    public Map<String, Object> hints() {
+                        return Map.of();
+                    }
+                })
+                .then(Mono.defer(captured::getBodyAsString));
+    }
+}
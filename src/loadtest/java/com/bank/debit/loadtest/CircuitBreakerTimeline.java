@@ -0,0 +1,41 @@
+package com.bank.debit.loadtest;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records every circuit breaker state transition of the application under test, including
+ * breakers created lazily on their first call.
+ */
+final class CircuitBreakerTimeline {
+
+    private final long startNanos = System.nanoTime();
+    private final List<Transition> transitions = new CopyOnWriteArrayList<>();
+
+    CircuitBreakerTimeline(CircuitBreakerRegistry registry) {
+        registry.getAllCircuitBreakers().forEach(this::listen);
+        registry.getEventPublisher().onEntryAdded(event -> listen(event.getAddedEntry()));
+    }
+
+    List<Transition> transitions() {
+        return new ArrayList<>(transitions);
+    }
+
+    private void listen(CircuitBreaker circuitBreaker) {
+        circuitBreaker.getEventPublisher().onStateTransition(event -> transitions.add(new Transition(
+                Duration.ofNanos(System.nanoTime() - startNanos).toMillis(),
+                event.getCircuitBreakerName(),
+                event.getStateTransition().getFromState().name(),
+                event.getStateTransition().getToState().name())));
+    }
+
+    /**
+     * One state change, in milliseconds since the harness started
+     */
+    record Transition(long atMillis, String circuitBreaker, String from, String to) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.bank.debit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Open-model driver: arrivals are scheduled at a fixed rate regardless of how many requests
+ * are still in flight, and latency is measured from the intended start of each arrival so a
+ * slow service is not hidden by coordinated omission.
+ */
+@Slf4j
+final class LoadDriver implements AutoCloseable {
+
+    private static final int SEED_CONCURRENCY = 32;
+
+    private final ConnectionProvider connections = ConnectionProvider.builder("loadtest")
+            .maxConnections(2_000)
+            .pendingAcquireMaxCount(-1)
+            .build();
+    private final WebClient client;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final List<String> cardIds = new CopyOnWriteArrayList<>();
+    private final List<String> customerIds = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    LoadDriver(String baseUrl, Map<Operation, Integer> mix) {
+        this.client = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                .build();
+        this.operations = mix.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Creates the cards every other operation works on
+     */
+    void seed(int cards) {
+        Flux.range(0, cards)
+                .flatMap(i -> createCard("lt-cust-" + i, "lt-acc-" + i), SEED_CONCURRENCY)
+                .blockLast();
+        if (cardIds.isEmpty()) {
+            throw new IllegalStateException("No debit cards could be created; check the application log");
+        }
+        log.info("Seeded {} debit cards", cardIds.size());
+    }
+
+    void run(Duration duration, double rate, LoadTestReport report) {
+        long periodNanos = (long) (1_000_000_000L / rate);
+        long arrivals = duration.toNanos() / periodNanos;
+        long start = System.nanoTime();
+
+        Flux.interval(Duration.ZERO, Duration.ofNanos(periodNanos))
+                .take(arrivals)
+                .onBackpressureDrop(tick -> report.recordDropped())
+                .flatMap(tick -> {
+                    long intendedStart = start + tick * periodNanos;
+                    Operation operation = nextOperation();
+                    return call(operation)
+                            .onErrorReturn(LoadTestReport.CLIENT_ERROR)
+                            .doOnNext(status -> report.record(operation, System.nanoTime() - intendedStart, status));
+                }, Integer.MAX_VALUE)
+                .blockLast();
+    }
+
+    @Override
+    public void close() {
+        connections.disposeLater().block();
+    }
+
+    private Mono<Integer> call(Operation operation) {
+        return switch (operation) {
+            case CREATE -> {
+                long n = sequence.incrementAndGet();
+                yield createCard("lt-new-" + n, "lt-new-acc-" + n);
+            }
+            case ASSOCIATE -> exchange(client.put()
+                    .uri("/api/debit-cards/associate")
+                    .bodyValue(Map.of(
+                            "customerId", random(customerIds),
+                            "accountId", "lt-extra-" + sequence.incrementAndGet())));
+            case TRANSACTION -> exchange(client.post()
+                    .uri("/api/debit-cards/transaction")
+                    .bodyValue(Map.of(
+                            "debitCardId", random(cardIds),
+                            "amount", 10.00,
+                            "description", "load test")));
+            case GET_BY_ID -> exchange(client.get().uri("/api/debit-cards/{id}", random(cardIds)));
+            case GET_BY_CUSTOMER -> exchange(client.get()
+                    .uri("/api/debit-cards/customer/{customerId}", random(customerIds)));
+        };
+    }
+
+    private Mono<Integer> createCard(String customerId, String primaryAccountId) {
+        return client.post()
+                .uri("/api/debit-cards")
+                .bodyValue(Map.of("customerId", customerId, "primaryAccountId", primaryAccountId))
+                .exchangeToMono(response -> {
+                    if (!response.statusCode().is2xxSuccessful()) {
+                        return releaseWithStatus(response);
+                    }
+                    return response.bodyToMono(JsonNode.class)
+                            .doOnNext(card -> {
+                                cardIds.add(card.path("id").asText());
+                                customerIds.add(customerId);
+                            })
+                            .thenReturn(response.statusCode().value());
+                });
+    }
+
+    private static Mono<Integer> exchange(WebClient.RequestHeadersSpec<?> request) {
+        return request.exchangeToMono(LoadDriver::releaseWithStatus);
+    }
+
+    private static Mono<Integer> releaseWithStatus(ClientResponse response) {
+        return response.releaseBody().thenReturn(response.statusCode().value());
+    }
+
+    private Operation nextOperation() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private static String random(List<String> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+}
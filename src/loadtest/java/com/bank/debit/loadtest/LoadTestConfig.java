@@ -0,0 +1,108 @@
+package com.bank.debit.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from key=value program arguments and then system properties.
+ *
+ * <pre>
+ * loadtest.rate=200                 total arrivals per second (open model)
+ * loadtest.duration=PT60S           measured phase
+ * loadtest.warmup=PT15S             discarded phase
+ * loadtest.cards=500                cards created before the run
+ * loadtest.mix=transaction=70,getById=10,getByCustomer=10,associate=5,create=5
+ * loadtest.report=target/loadtest-report.json
+ * stub.latency-ms=20                base latency of every stub response
+ * stub.latency-tail-ms=10           mean of the exponential tail added to the base
+ * stub.error-rate=0.0               share of 503 responses
+ * stub.insufficient-funds-rate=0.2  share of FAILED withdrawals (transaction stub only)
+ * stub.&lt;account|customer|transaction&gt;.latency-ms (...)  per-stub overrides
+ * </pre>
+ */
+final class LoadTestConfig {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    private LoadTestConfig() {
+    }
+
+    static LoadTestConfig from(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        System.getProperties().forEach((key, value) -> config.values.put(key.toString(), value.toString()));
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                config.values.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return config;
+    }
+
+    double rate() {
+        return Double.parseDouble(get("loadtest.rate", "200"));
+    }
+
+    Duration duration() {
+        return Duration.parse(get("loadtest.duration", "PT60S"));
+    }
+
+    Duration warmup() {
+        return Duration.parse(get("loadtest.warmup", "PT15S"));
+    }
+
+    int cards() {
+        return Integer.parseInt(get("loadtest.cards", "500"));
+    }
+
+    String reportPath() {
+        return get("loadtest.report", "target/loadtest-report.json");
+    }
+
+    Map<Operation, Integer> mix() {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String entry : get("loadtest.mix",
+                "transaction=70,getById=10,getByCustomer=10,associate=5,create=5").split(",")) {
+            String[] parts = entry.trim().split("=");
+            weights.put(Operation.fromKey(parts[0]), Integer.parseInt(parts[1]));
+        }
+        return weights;
+    }
+
+    StubBehaviour stub(String service) {
+        return new StubBehaviour(
+                Duration.ofMillis(Long.parseLong(stubValue(service, "latency-ms", "20"))),
+                Duration.ofMillis(Long.parseLong(stubValue(service, "latency-tail-ms", "10"))),
+                Double.parseDouble(stubValue(service, "error-rate", "0.0")),
+                Double.parseDouble(stubValue(service, "insufficient-funds-rate", "0.2")));
+    }
+
+    Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("rate", rate());
+        description.put("duration", duration().toString());
+        description.put("warmup", warmup().toString());
+        description.put("cards", cards());
+        description.put("mix", mix());
+        description.put("account", stub("account"));
+        description.put("customer", stub("customer"));
+        description.put("transaction", stub("transaction"));
+        return description;
+    }
+
+    private String stubValue(String service, String key, String defaultValue) {
+        return get("stub." + service + "." + key, get("stub." + key, defaultValue));
+    }
+
+    private String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * Latency and failure distribution of one stub downstream
+     */
+    record StubBehaviour(Duration latency, Duration latencyTail, double errorRate, double insufficientFundsRate) {
+    }
+}
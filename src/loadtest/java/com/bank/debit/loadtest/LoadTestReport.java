@@ -0,0 +1,123 @@
+package com.bank.debit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Per-operation latency histograms (microseconds) and status counts for one measured phase,
+ * printed as a table and written as JSON.
+ */
+final class LoadTestReport {
+
+    /** Status recorded when the request failed before any HTTP response (timeout, refused connection). */
+    static final int CLIENT_ERROR = -1;
+
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private final Map<Operation, Recorder> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<Integer, LongAdder>> statuses = new EnumMap<>(Operation.class);
+    private final LongAdder dropped = new LongAdder();
+
+    LoadTestReport() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new Recorder(3));
+            statuses.put(operation, new ConcurrentHashMap<>());
+        }
+    }
+
+    void record(Operation operation, long latencyNanos, int status) {
+        latencies.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        statuses.get(operation).computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    /**
+     * Discards everything recorded so far, e.g. at the end of the warm-up
+     */
+    void reset() {
+        latencies.values().forEach(Recorder::reset);
+        statuses.values().forEach(Map::clear);
+        dropped.reset();
+    }
+
+    Map<String, Object> summarize(Duration measured, Map<String, Object> config,
+                                  List<CircuitBreakerTimeline.Transition> timeline) {
+        double seconds = measured.toMillis() / 1000.0;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation).getIntervalHistogram();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", histogram.getTotalCount());
+            summary.put("throughputPerSecond", histogram.getTotalCount() / seconds);
+            for (double percentile : PERCENTILES) {
+                summary.put("p" + format(percentile) + "Millis", histogram.getValueAtPercentile(percentile) / 1000.0);
+            }
+            summary.put("maxMillis", histogram.getMaxValue() / 1000.0);
+            Map<Integer, Long> counts = new TreeMap<>();
+            statuses.get(operation).forEach((status, count) -> counts.put(status, count.sum()));
+            summary.put("statuses", counts);
+            operations.put(operation.key(), summary);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("measuredSeconds", seconds);
+        report.put("droppedArrivals", dropped.sum());
+        report.put("operations", operations);
+        report.put("circuitBreakerTimeline", timeline);
+        return report;
+    }
+
+    static void print(Map<String, Object> report) {
+        StringBuilder table = new StringBuilder(String.format("%n%-15s %8s %9s %9s %9s %9s %9s %9s  %s%n",
+                "operation", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "statuses"));
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> operations = (Map<String, Map<String, Object>>) report.get("operations");
+        operations.forEach((name, summary) -> table.append(String.format(
+                "%-15s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                name, summary.get("count"), summary.get("throughputPerSecond"),
+                summary.get("p50Millis"), summary.get("p90Millis"), summary.get("p99Millis"),
+                summary.get("p99.9Millis"), summary.get("maxMillis"), summary.get("statuses"))));
+        table.append(String.format("dropped arrivals: %s%n", report.get("droppedArrivals")));
+        table.append(String.format("circuit breaker timeline:%n"));
+        ((List<?>) report.get("circuitBreakerTimeline")).forEach(transition ->
+                table.append("  ").append(transition).append(System.lineSeparator()));
+        System.out.println(table);
+    }
+
+    static void write(Map<String, Object> report, String path) throws IOException {
+        Path target = Path.of(path);
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        new ObjectMapper()
+                .findAndRegisterModules()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .writeValue(target.toFile(), report);
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.floor(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,79 @@
+package com.bank.debit.loadtest;
+
+import com.bank.debit.DebitApplication;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the stub downstreams, the debit service on an embedded MongoDB (no config server,
+ * no Eureka) and drives open-model load against it.
+ *
+ * <p>Run with {@code mvn -Ploadtest -DskipTests test}; settings are listed on {@link LoadTestConfig}
+ * and passed with {@code -Dloadtest.args="loadtest.rate=500 stub.error-rate=0.05"}.
+ */
+@Slf4j
+public final class LoadTestRunner {
+
+    private static final List<String> SERVICES = List.of("account", "customer", "transaction");
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.from(args);
+
+        try (StubDownstreams stubs = new StubDownstreams(config)) {
+            configureApplication(stubs.baseUrl());
+            try (ConfigurableApplicationContext application = new SpringApplicationBuilder(DebitApplication.class)
+                    .run()) {
+                int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+                AtomicReference<CircuitBreakerTimeline> timeline = new AtomicReference<>();
+                application.getBeanProvider(CircuitBreakerRegistry.class)
+                        .ifAvailable(registry -> timeline.set(new CircuitBreakerTimeline(registry)));
+
+                try (LoadDriver driver = new LoadDriver("http://localhost:" + port, config.mix())) {
+                    driver.seed(config.cards());
+                    LoadTestReport report = new LoadTestReport();
+
+                    log.info("Warm-up: {} at {} req/s", config.warmup(), config.rate());
+                    driver.run(config.warmup(), config.rate(), report);
+                    report.reset();
+
+                    log.info("Measuring: {} at {} req/s", config.duration(), config.rate());
+                    driver.run(config.duration(), config.rate(), report);
+
+                    Map<String, Object> summary = report.summarize(config.duration(), config.describe(),
+                            timeline.get() == null ? List.of() : timeline.get().transitions());
+                    LoadTestReport.print(summary);
+                    LoadTestReport.write(summary, config.reportPath());
+                    log.info("Report written to {}", config.reportPath());
+                }
+            }
+        }
+    }
+
+    /**
+     * The downstream clients are load balanced by service id, so each id resolves to the stubs
+     * through Spring Cloud simple discovery instead of Eureka.
+     */
+    private static void configureApplication(String stubsUrl) {
+        System.setProperty("spring.cloud.config.enabled", "false");
+        System.setProperty("eureka.client.enabled", "false");
+        System.setProperty("spring.profiles.active", "loadtest");
+        System.setProperty("server.port", "0");
+        System.setProperty("de.flapdoodle.mongodb.embedded.version", "7.0.14");
+        System.setProperty("logging.level.root", "WARN");
+        System.setProperty("logging.level.com.bank.debit.loadtest", "INFO");
+        for (String service : SERVICES) {
+            System.setProperty(service + ".service.url", "http://" + service + "-service");
+            System.setProperty("spring.cloud.discovery.client.simple.instances." + service + "-service[0].uri",
+                    stubsUrl);
+        }
+    }
+}
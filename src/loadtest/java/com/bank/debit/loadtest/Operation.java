@@ -0,0 +1,31 @@
+package com.bank.debit.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * The five REST operations of the debit API driven by the load test
+ */
+enum Operation {
+    CREATE("create"),
+    ASSOCIATE("associate"),
+    TRANSACTION("transaction"),
+    GET_BY_ID("getById"),
+    GET_BY_CUSTOMER("getByCustomer");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    static Operation fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation in loadtest.mix: " + key));
+    }
+}
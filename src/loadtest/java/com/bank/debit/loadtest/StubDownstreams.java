@@ -0,0 +1,97 @@
+package com.bank.debit.loadtest;
+
+import com.bank.debit.loadtest.LoadTestConfig.StubBehaviour;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+/**
+ * Local account, customer and transaction services on one ephemeral port. Every response
+ * waits base latency plus an exponential tail, and fails with 503 at the configured rate;
+ * withdrawals return FAILED (insufficient funds) at their own rate.
+ */
+final class StubDownstreams implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final StubBehaviour account;
+    private final StubBehaviour customer;
+    private final StubBehaviour transaction;
+    private final AtomicLong transactionSequence = new AtomicLong();
+    private final DisposableServer server;
+
+    StubDownstreams(LoadTestConfig config) {
+        this.account = config.stub("account");
+        this.customer = config.stub("customer");
+        this.transaction = config.stub("transaction");
+        this.server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/api/customers/{id}", (request, response) ->
+                                respond(response, customer, () -> customerJson(request.param("id"))))
+                        .get("/api/accounts/{id}", (request, response) ->
+                                respond(response, account, () -> accountJson(request.param("id"))))
+                        .post("/api/transactions/withdrawal", (request, response) -> request.receive()
+                                .aggregate()
+                                .asString()
+                                .flatMap(body -> respond(response, transaction, () -> withdrawalJson(body)))))
+                .bindNow();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.port();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Mono<Void> respond(HttpServerResponse response, StubBehaviour behaviour, Supplier<String> body) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long tailNanos = (long) (random.nextExponential() * behaviour.latencyTail().toNanos());
+        boolean error = random.nextDouble() < behaviour.errorRate();
+        return Mono.delay(behaviour.latency().plusNanos(tailNanos))
+                .then(Mono.defer(() -> error
+                        ? response.status(503).send()
+                        : response.header("Content-Type", "application/json")
+                                .sendString(Mono.just(body.get()))
+                                .then()));
+    }
+
+    private static String customerJson(String id) {
+        return "{\"id\":\"" + id + "\",\"customerType\":\"PERSONAL\",\"active\":true}";
+    }
+
+    private static String accountJson(String id) {
+        return "{\"id\":\"" + id + "\",\"accountType\":\"SAVINGS\",\"active\":true,"
+                + "\"balance\":1000000.00,\"currency\":\"PEN\"}";
+    }
+
+    private String withdrawalJson(String requestBody) {
+        JsonNode request = readTree(requestBody);
+        boolean insufficientFunds = ThreadLocalRandom.current().nextDouble() < transaction.insufficientFundsRate();
+        return "{\"id\":\"tx-" + transactionSequence.incrementAndGet()
+                + "\",\"transactionType\":\"WITHDRAWAL\""
+                + ",\"accountId\":\"" + request.path("accountId").asText() + "\""
+                + ",\"amount\":" + request.path("amount").asText("0")
+                + ",\"status\":\"" + (insufficientFunds ? "FAILED" : "COMPLETED") + "\""
+                + ",\"errorMessage\":" + (insufficientFunds ? "\"Insufficient funds\"" : "null")
+                + ",\"createdAt\":\"" + LocalDateTime.now() + "\"}";
+    }
+
+    private static JsonNode readTree(String body) {
+        try {
+            return MAPPER.readTree(body);
+        } catch (Exception e) {
+            return MAPPER.createObjectNode();
+        }
+    }
+}
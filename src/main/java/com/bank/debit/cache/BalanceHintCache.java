@@ -0,0 +1,131 @@
+package com.bank.debit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process balance hints keyed by accountId.
+ * Filled from withdrawal results and account lookups, used to route debit
+ * transactions away from accounts that are known to be short.
+ */
+@Slf4j
+@Component
+public class BalanceHintCache {
+
+    private final Cache<String, BalanceHint> hints;
+    private final boolean skipShortAccounts;
+
+    public BalanceHintCache(@Value("${debit.balance-hints.ttl:PT5M}") Duration ttl,
+                            @Value("${debit.balance-hints.max-size:100000}") long maxSize,
+                            @Value("${debit.balance-hints.skip-short:false}") boolean skipShortAccounts) {
+        this.hints = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+        this.skipShortAccounts = skipShortAccounts;
+    }
+
+    /**
+     * Record a known balance (e.g. TransactionResponse.balanceAfter or AccountResponse.balance)
+     * @param accountId the account id
+     * @param balance the known balance
+     */
+    public void recordBalance(String accountId, BigDecimal balance) {
+        if (accountId == null || balance == null) {
+            return;
+        }
+        hints.put(accountId, BalanceHint.exact(balance));
+    }
+
+    /**
+     * Record that a withdrawal was rejected for insufficient funds,
+     * so the balance is known to be below the requested amount.
+     * @param accountId the account id
+     * @param requested the rejected amount
+     */
+    public void recordInsufficientFunds(String accountId, BigDecimal requested) {
+        if (accountId == null || requested == null) {
+            return;
+        }
+        hints.asMap().merge(accountId, BalanceHint.below(requested), BalanceHint::tighter);
+    }
+
+    /**
+     * Check if the account is known to be unable to cover the amount
+     * @param accountId the account id
+     * @param amount the amount to withdraw
+     * @return true if the hint says the account is short
+     */
+    public boolean isKnownShort(String accountId, BigDecimal amount) {
+        BalanceHint hint = hints.getIfPresent(accountId);
+        return hint != null && hint.isShortFor(amount);
+    }
+
+    /**
+     * Order accounts so the ones known to be short are tried last, keeping priority order otherwise.
+     * When debit.balance-hints.skip-short is enabled, known-short accounts are dropped instead.
+     * @param accounts associated accounts in priority order
+     * @param amount the amount to withdraw
+     * @return accounts in the order they should be tried
+     */
+    public List<String> prioritize(List<String> accounts, BigDecimal amount) {
+        List<String> candidates = new ArrayList<>(accounts.size());
+        List<String> shortAccounts = new ArrayList<>();
+
+        for (String accountId : accounts) {
+            if (isKnownShort(accountId, amount)) {
+                shortAccounts.add(accountId);
+            } else {
+                candidates.add(accountId);
+            }
+        }
+
+        if (!shortAccounts.isEmpty()) {
+            log.debug("Cuentas con saldo insuficiente conocido {} - Omitir: {}", shortAccounts, skipShortAccounts);
+        }
+        if (!skipShortAccounts) {
+            candidates.addAll(shortAccounts);
+        }
+        return candidates;
+    }
+
+    public void invalidate(String accountId) {
+        hints.invalidate(accountId);
+    }
+
+    /**
+     * Balance hint. An exact hint holds the last known balance; an upper bound
+     * only says the balance is lower than the value.
+     */
+    private record BalanceHint(BigDecimal value, boolean exact) {
+
+        static BalanceHint exact(BigDecimal balance) {
+            return new BalanceHint(balance, true);
+        }
+
+        static BalanceHint below(BigDecimal amount) {
+            return new BalanceHint(amount, false);
+        }
+
+        boolean isShortFor(BigDecimal amount) {
+            return exact ? value.compareTo(amount) < 0 : value.compareTo(amount) <= 0;
+        }
+
+        BalanceHint tighter(BalanceHint other) {
+            if (exact && value.compareTo(other.value) < 0) {
+                return this;
+            }
+            if (!exact && !other.exact && value.compareTo(other.value) < 0) {
+                return this;
+            }
+            return other;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.bank.debit.cache;
+
+import com.bank.debit.model.entity.Debit;
+import com.bank.debit.repository.DebitRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Write-through cache of debit cards between DebitService and DebitRepository.
+ * Entries are invalidated across replicas through a MongoDB change stream on
+ * debit_cards when debit.card-cache.change-stream.enabled is set (requires a replica set).
+ */
+@Slf4j
+@Component
+public class DebitCardCache {
+
+    private static final String COLLECTION = "debit_cards";
+
+    private final DebitRepository debitRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final Cache<String, Debit> cardsById;
+    private final Cache<String, String> cardIdByCustomer;
+    private final boolean changeStreamEnabled;
+
+    private Disposable changeStreamSubscription;
+
+    public DebitCardCache(DebitRepository debitRepository,
+                          ReactiveMongoTemplate mongoTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${debit.card-cache.ttl:PT5M}") Duration ttl,
+                          @Value("${debit.card-cache.max-size:50000}") long maxSize,
+                          @Value("${debit.card-cache.change-stream.enabled:false}") boolean changeStreamEnabled) {
+        this.debitRepository = debitRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.changeStreamEnabled = changeStreamEnabled;
+        this.cardsById = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.cardIdByCustomer = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cardsById, "debitCards");
+    }
+
+    /**
+     * Find debit card by id, from memory when possible
+     * @param id the debit card id
+     * @return Mono of a copy of the card, empty if not found
+     */
+    public Mono<Debit> findById(String id) {
+        Debit cached = cardsById.getIfPresent(id);
+        if (cached != null) {
+            return Mono.just(copyOf(cached));
+        }
+        return debitRepository.findById(id)
+                .doOnNext(this::put)
+                .map(this::copyOf);
+    }
+
+    /**
+     * Find debit cards by id, serving hits from memory and loading misses with a single query
+     * @param ids the debit card ids
+     * @return Flux of copies of the cards found
+     */
+    public Flux<Debit> findAllById(Collection<String> ids) {
+        Map<String, Debit> hits = cardsById.getAllPresent(ids);
+        List<String> misses = ids.stream()
+                .filter(id -> !hits.containsKey(id))
+                .toList();
+
+        Flux<Debit> cached = Flux.fromIterable(hits.values()).map(this::copyOf);
+        if (misses.isEmpty()) {
+            return cached;
+        }
+        return cached.concatWith(debitRepository.findAllById(misses)
+                .doOnNext(this::put)
+                .map(this::copyOf));
+    }
+
+    /**
+     * Find the debit card of a customer, from memory when possible
+     * @param customerId the customer id
+     * @return Mono of a copy of the card, empty if not found
+     */
+    public Mono<Debit> findByCustomerId(String customerId) {
+        String cardId = cardIdByCustomer.getIfPresent(customerId);
+        if (cardId != null) {
+            Debit cached = cardsById.getIfPresent(cardId);
+            if (cached != null) {
+                return Mono.just(copyOf(cached));
+            }
+        }
+        return debitRepository.findByCustomerId(customerId)
+                .doOnNext(card -> {
+                    put(card);
+                    cardIdByCustomer.put(customerId, card.getId());
+                })
+                .map(this::copyOf);
+    }
+
+    /**
+     * Save the debit card and update the cache with the stored state
+     * @param debit the debit card
+     * @return Mono of the saved card
+     */
+    public Mono<Debit> save(Debit debit) {
+        return debitRepository.save(debit)
+                .doOnNext(this::put);
+    }
+
+    /**
+     * Associate an account to the card with a single atomic update and cache the result
+     * @param debit the card as read by the caller; its version guards the update
+     * @param accountId the account to associate
+     * @return Mono of the updated card, OptimisticLockingFailureException if the card changed
+     */
+    public Mono<Debit> addAssociatedAccount(Debit debit, String accountId) {
+        return debitRepository.addAssociatedAccount(debit.getId(), debit.getVersion(), accountId)
+                .switchIfEmpty(Mono.defer(() -> {
+                    invalidate(debit.getId());
+                    return Mono.error(new OptimisticLockingFailureException(
+                            "Debit card " + debit.getId() + " was modified concurrently"));
+                }))
+                .doOnNext(this::put);
+    }
+
+    /**
+     * Insert the card unless the customer already has one for the same primary account
+     * @param debit the new card, with its id already assigned
+     * @return Mono of the stored card, which is an existing one when its id differs
+     */
+    public Mono<Debit> insertIfAbsent(Debit debit) {
+        return debitRepository.insertIfAbsent(debit)
+                .doOnNext(this::put);
+    }
+
+    /**
+     * Remove a closed account from every card with one updateMany and drop the cached
+     * cards that referenced it.
+     * Only this replica's entries are dropped here; other replicas see the change through the
+     * change stream, so debit.card-cache.change-stream.enabled must be set when running more
+     * than one replica. Without it they keep serving the account until the entry expires (ttl).
+     * @param accountId the closed account
+     * @return Mono of the number of cards modified
+     */
+    public Mono<Long> removeAssociatedAccountFromAll(String accountId) {
+        return debitRepository.removeAssociatedAccountFromAll(accountId)
+                .doOnNext(modified -> {
+                    if (!changeStreamEnabled && modified > 0) {
+                        log.warn("Change stream deshabilitado: otras réplicas pueden seguir usando la cuenta {} "
+                                + "en {} tarjetas hasta que expire su cache", accountId, modified);
+                    }
+                })
+                .doOnNext(modified -> cardsById.asMap().values().stream()
+                        .filter(card -> card.getAssociatedAccounts() != null
+                                && card.getAssociatedAccounts().contains(accountId))
+                        .map(Debit::getId)
+                        .toList()
+                        .forEach(this::invalidate));
+    }
+
+    public void put(Debit debit) {
+        cardsById.put(debit.getId(), copyOf(debit));
+    }
+
+    public void invalidate(String id) {
+        log.debug("Invalidando tarjeta {} del cache", id);
+        cardsById.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        log.debug("Invalidando todas las tarjetas del cache");
+        cardsById.invalidateAll();
+        cardIdByCustomer.invalidateAll();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribeToChanges() {
+        if (!changeStreamEnabled) {
+            return;
+        }
+        log.info("Suscribiendo cache de tarjetas al change stream de {}", COLLECTION);
+
+        changeStreamSubscription = mongoTemplate
+                .changeStream(COLLECTION, ChangeStreamOptions.empty(), Document.class)
+                .doOnNext(this::onChange)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> {
+                            log.warn("Change stream de {} interrumpido, reintentando: {}",
+                                    COLLECTION, signal.failure().getMessage());
+                            // Changes may have been missed while disconnected
+                            invalidateAll();
+                        }))
+                .subscribe();
+    }
+
+    private void onChange(ChangeStreamEvent<Document> event) {
+        if (event.getRaw() == null || event.getRaw().getDocumentKey() == null) {
+            invalidateAll();
+            return;
+        }
+        BsonDocument documentKey = event.getRaw().getDocumentKey();
+        BsonValue id = documentKey.get("_id");
+        if (id == null) {
+            invalidateAll();
+        } else if (id.isObjectId()) {
+            invalidate(id.asObjectId().getValue().toHexString());
+        } else if (id.isString()) {
+            invalidate(id.asString().getValue());
+        }
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (changeStreamSubscription != null) {
+            changeStreamSubscription.dispose();
+        }
+    }
+
+    private Debit copyOf(Debit debit) {
+        return debit.toBuilder()
+                .associatedAccounts(debit.getAssociatedAccounts() == null
+                        ? null : new ArrayList<>(debit.getAssociatedAccounts()))
+                .build();
+    }
+}
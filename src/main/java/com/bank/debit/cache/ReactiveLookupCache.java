@@ -0,0 +1,73 @@
+package com.bank.debit.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive read-through cache with TTL, size bound and per-key request coalescing.
+ * Concurrent misses for the same key share one in-flight load; failed or empty
+ * loads are not cached.
+ * @param <V> the cached value type
+ */
+@Slf4j
+public class ReactiveLookupCache<V> {
+
+    @Getter
+    private final String name;
+    private final AsyncCache<String, V> cache;
+    private final Function<String, Mono<V>> loader;
+
+    public ReactiveLookupCache(String name,
+                               Duration ttl,
+                               long maxSize,
+                               Function<String, Mono<V>> loader,
+                               MeterRegistry meterRegistry) {
+        this.name = name;
+        this.loader = loader;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), name);
+    }
+
+    /**
+     * Get the value for the key, loading it on a miss.
+     * The load runs in the Reactor context of the caller that missed (observation parent,
+     * request deadline); callers coalesced onto it share that load.
+     * @param key the lookup key
+     * @return Mono of the value, empty if the loader returned empty
+     */
+    public Mono<V> get(String key) {
+        // suppressCancel: a cancelled subscriber must not cancel the load shared with other callers
+        return Mono.deferContextual(context -> Mono.fromFuture(() -> cache.get(key,
+                (k, executor) -> loader.apply(k).contextWrite(context).toFuture()), true));
+    }
+
+    public void invalidate(String key) {
+        log.debug("Invalidando entrada {} del cache {}", key, name);
+        cache.synchronous().invalidate(key);
+    }
+
+    public void invalidateAll() {
+        log.debug("Invalidando todas las entradas del cache {}", name);
+        cache.synchronous().invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    public long size() {
+        return cache.synchronous().estimatedSize();
+    }
+}
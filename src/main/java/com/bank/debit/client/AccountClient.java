@@ -1,7 +1,9 @@
 package com.bank.debit.client;
 
 
+import com.bank.debit.deadline.Deadline;
 import com.bank.debit.exception.ServiceUnavailableException;
+import com.bank.debit.metrics.DebitMetrics;
 import com.bank.debit.model.dto.AccountResponse;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
@@ -9,6 +11,7 @@ import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import java.time.Duration;
 import javax.security.auth.login.AccountNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -23,12 +26,18 @@ import reactor.core.publisher.Mono;
 public class AccountClient {
 
     private final WebClient webClient;
+    private final DebitMetrics debitMetrics;
+    private final RequestHedger requestHedger;
 
-    public AccountClient(WebClient.Builder webClientBuilder,
-                         @Value("${account.service.url}") String accountServiceUrl) {
+    public AccountClient(@Qualifier("accountWebClientBuilder") WebClient.Builder webClientBuilder,
+                         @Value("${account.service.url}") String accountServiceUrl,
+                         DebitMetrics debitMetrics,
+                         RequestHedger requestHedger) {
         this.webClient = webClientBuilder
                 .baseUrl(accountServiceUrl)
                 .build();
+        this.debitMetrics = debitMetrics;
+        this.requestHedger = requestHedger;
     }
 
     /**
@@ -42,13 +51,16 @@ public class AccountClient {
     public Mono<AccountResponse> getAccount(String accountId) {
         log.debug("Calling Account Service to get account with id: {}", accountId);
 
-        return webClient.get()
+        Mono<AccountResponse> call = requestHedger.hedge("account", attempt -> webClient.get()
                 .uri("/api/accounts/{id}", accountId)
+                .attribute(HedgeAttempt.ATTRIBUTE, attempt)
                 .retrieve()
                 .onStatus(status -> status.value() == 404,
                         response -> Mono.error(new AccountNotFoundException(accountId)))
                 .bodyToMono(AccountResponse.class)
-                .timeout(Duration.ofSeconds(2))
+                .as(request -> Deadline.bounded(request, Duration.ofSeconds(2))));
+
+        return debitMetrics.timeClient("account", "getAccount", call)
                 .doOnSuccess(account -> log.debug("Account found: {}", account.getId()))
                 .doOnError(WebClientResponseException.class, ex -> {
                     log.error("Error calling Account Service: {} - {}", ex.getStatusCode(), ex.getMessage());
@@ -1,13 +1,16 @@
 package com.bank.debit.client;
 
+import com.bank.debit.deadline.Deadline;
 import com.bank.debit.exception.CustomerNotFoundException;
 import com.bank.debit.exception.ServiceUnavailableException;
+import com.bank.debit.metrics.DebitMetrics;
 import com.bank.debit.model.dto.CustomerResponse;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import java.time.Duration;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -22,12 +25,18 @@ import reactor.core.publisher.Mono;
 public class CustomerClient {
 
     private final WebClient webClient;
+    private final DebitMetrics debitMetrics;
+    private final RequestHedger requestHedger;
 
-    public CustomerClient(WebClient.Builder webClientBuilder,
-                          @Value("${customer.service.url}") String customerServiceUrl) {
+    public CustomerClient(@Qualifier("customerWebClientBuilder") WebClient.Builder webClientBuilder,
+                          @Value("${customer.service.url}") String customerServiceUrl,
+                          DebitMetrics debitMetrics,
+                          RequestHedger requestHedger) {
         this.webClient = webClientBuilder
                 .baseUrl(customerServiceUrl)
                 .build();
+        this.debitMetrics = debitMetrics;
+        this.requestHedger = requestHedger;
     }
 
     /**
@@ -41,13 +50,16 @@ public class CustomerClient {
     public Mono<CustomerResponse> getCustomerById(String customerId) {
         log.debug("Calling Customer Service to get customer with id: {}", customerId);
 
-        return webClient.get()
+        Mono<CustomerResponse> call = requestHedger.hedge("customer", attempt -> webClient.get()
                 .uri("/api/customers/{id}", customerId)
+                .attribute(HedgeAttempt.ATTRIBUTE, attempt)
                 .retrieve()
                 .onStatus(status -> status.value() == 404,
                         response -> Mono.error(new CustomerNotFoundException(customerId)))
                 .bodyToMono(CustomerResponse.class)
-                .timeout(Duration.ofSeconds(2))
+                .as(request -> Deadline.bounded(request, Duration.ofSeconds(2))));
+
+        return debitMetrics.timeClient("customer", "getCustomerById", call)
                 .doOnSuccess(customer -> log.debug("Customer found: {}", customer.getId()))
                 .doOnError(ex -> {
                     log.error("Error calling Customer Service: {}", ex.getMessage());
@@ -114,7 +126,7 @@ public class CustomerClient {
                 .uri("/api/customers/delay")
                 .retrieve()
                 .bodyToMono(String.class)
-                .timeout(Duration.ofSeconds(2))
+                .as(request -> Deadline.bounded(request, Duration.ofSeconds(2)))
                 .doOnSuccess(customer -> log.debug("Success delayed result"))
                 .doOnError(ex -> log.error("Error delayed result: {}", ex.getMessage()));
     }
@@ -0,0 +1,46 @@
+package com.bank.debit.client;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+/**
+ * One call of a hedged request, carried as a WebClient request attribute so the load
+ * balancer can record the instance that served the primary and route the hedge elsewhere.
+ */
+public final class HedgeAttempt {
+
+    public static final String ATTRIBUTE = HedgeAttempt.class.getName();
+
+    private final HedgeAttempt primary;
+    private volatile String instance;
+
+    private HedgeAttempt(HedgeAttempt primary) {
+        this.primary = primary;
+    }
+
+    static HedgeAttempt primary() {
+        return new HedgeAttempt(null);
+    }
+
+    HedgeAttempt hedge() {
+        return new HedgeAttempt(this);
+    }
+
+    public boolean isHedge() {
+        return primary != null;
+    }
+
+    /**
+     * @return the instance chosen for the primary when this is its hedge, otherwise null
+     */
+    public String excludedInstance() {
+        return primary == null ? null : primary.instance;
+    }
+
+    public void onInstanceChosen(ServiceInstance serviceInstance) {
+        this.instance = key(serviceInstance);
+    }
+
+    public static String key(ServiceInstance serviceInstance) {
+        return serviceInstance.getHost() + ":" + serviceInstance.getPort();
+    }
+}
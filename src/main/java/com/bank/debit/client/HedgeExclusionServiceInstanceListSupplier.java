@@ -0,0 +1,49 @@
+package com.bank.debit.client;
+
+import java.util.List;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+/**
+ * Leaves the primary's instance out of the candidates for its hedge, so a slow instance
+ * is not asked twice. With a single instance the hedge goes to it anyway.
+ */
+public class HedgeExclusionServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+
+    public HedgeExclusionServiceInstanceListSupplier(ServiceInstanceListSupplier delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return getDelegate().get();
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get(Request request) {
+        String excluded = excludedInstance(request);
+        if (excluded == null) {
+            return getDelegate().get(request);
+        }
+        return getDelegate().get(request)
+                .map(instances -> {
+                    List<ServiceInstance> others = instances.stream()
+                            .filter(instance -> !excluded.equals(HedgeAttempt.key(instance)))
+                            .toList();
+                    return others.isEmpty() ? instances : others;
+                });
+    }
+
+    private String excludedInstance(Request request) {
+        if (request.getContext() instanceof RequestDataContext context
+                && context.getClientRequest() != null
+                && context.getClientRequest().getAttributes().get(HedgeAttempt.ATTRIBUTE) instanceof HedgeAttempt attempt) {
+            return attempt.excludedInstance();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,40 @@
+package com.bank.debit.client;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records on each hedge attempt the instance the load balancer chose for it
+ */
+@Component
+public class HedgeInstanceRecorder implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse.hasServer()
+                && request.getContext().getClientRequest().getAttributes().get(HedgeAttempt.ATTRIBUTE)
+                        instanceof HedgeAttempt attempt) {
+            attempt.onInstanceChosen(lbResponse.getServer());
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.bank.debit.client;
+
+import com.bank.debit.config.HedgingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Hedged requests for idempotent downstream reads.
+ * When the primary call has not answered after the configured latency percentile, a
+ * second identical call is sent to another instance (see HedgeExclusionServiceInstanceListSupplier);
+ * the first signal wins and the other call is cancelled. A failing hedge never wins, so the
+ * caller always sees the primary's own error. Hedges draw from a token budget refilled by
+ * primary requests, so they stop when most calls are slow (an incident) instead of
+ * doubling the load.
+ */
+@Slf4j
+@Component
+public class RequestHedger {
+
+    public static final String HEDGE_COUNTER = "debit.client.hedges";
+
+    private final HedgingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ClientHedge> hedges = new ConcurrentHashMap<>();
+
+    public RequestHedger(HedgingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Hedge a call to the client if hedging is enabled for it
+     * @param client account or customer
+     * @param call builds a new, independent request on every invocation; the attempt should
+     *             be set as the HedgeAttempt.ATTRIBUTE request attribute
+     * @return the first signal of the primary, or the hedge's value
+     */
+    public <T> Mono<T> hedge(String client, Function<HedgeAttempt, Mono<T>> call) {
+        HedgingProperties.Hedge settings = properties.forClient(client);
+        if (!settings.isEnabled()) {
+            return Mono.defer(() -> call.apply(HedgeAttempt.primary()));
+        }
+        ClientHedge hedge = hedges.computeIfAbsent(client, key -> new ClientHedge(key, settings));
+        return Mono.defer(() -> {
+            hedge.onPrimary();
+            long start = System.nanoTime();
+            Duration delay = hedge.delay();
+            HedgeAttempt primaryAttempt = HedgeAttempt.primary();
+
+            // Only the primary's latency feeds the delay; when the hedge wins, the time until
+            // the primary is cancelled is a lower bound of it
+            Mono<T> primary = call.apply(primaryAttempt)
+                    .doOnSuccess(value -> hedge.record(System.nanoTime() - start))
+                    .doOnCancel(() -> hedge.record(System.nanoTime() - start));
+            Mono<T> hedged = Mono.delay(delay)
+                    .then(Mono.defer(() -> {
+                        if (!hedge.tryAcquire()) {
+                            return Mono.<T>never();
+                        }
+                        log.debug("Enviando hedge a {} tras {}", client, delay);
+                        return call.apply(primaryAttempt.hedge())
+                                .doOnNext(value -> hedge.won.increment())
+                                .onErrorResume(error -> {
+                                    log.debug("Hedge a {} fallido: {}", client, error.getMessage());
+                                    return Mono.never();
+                                });
+                    }));
+            // firstWithSignal: an early error (e.g. 404) from the primary is not masked by the hedge
+            return Mono.firstWithSignal(primary, hedged);
+        });
+    }
+
+    private final class ClientHedge {
+
+        private final HedgingProperties.Hedge settings;
+        private final long[] latencies;
+        private final AtomicLong samples = new AtomicLong();
+        private final AtomicLong budgetMillis = new AtomicLong();
+        private final Counter sent;
+        private final Counter won;
+        private final Counter budgetExhausted;
+        private volatile Duration delay;
+        private volatile long nextRefreshNanos;
+
+        private ClientHedge(String client, HedgingProperties.Hedge settings) {
+            this.settings = settings;
+            this.latencies = new long[settings.getWindow()];
+            this.delay = settings.getMaxDelay();
+            this.budgetMillis.set(settings.getBudgetBurst() * 1000L);
+            this.sent = counter(client, "sent");
+            this.won = counter(client, "won");
+            this.budgetExhausted = counter(client, "budget_exhausted");
+        }
+
+        private Counter counter(String client, String outcome) {
+            return Counter.builder(HEDGE_COUNTER)
+                    .description("Hedged downstream requests")
+                    .tag("client", client)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+        private void onPrimary() {
+            long refill = Math.round(settings.getBudgetRatio() * 1000);
+            long max = settings.getBudgetBurst() * 1000L;
+            budgetMillis.updateAndGet(tokens -> Math.min(max, tokens + refill));
+        }
+
+        private boolean tryAcquire() {
+            long remaining = budgetMillis.getAndUpdate(tokens -> tokens >= 1000 ? tokens - 1000 : tokens);
+            if (remaining < 1000) {
+                budgetExhausted.increment();
+                return false;
+            }
+            sent.increment();
+            return true;
+        }
+
+        private void record(long latencyNanos) {
+            long index = samples.getAndIncrement();
+            latencies[(int) (index % latencies.length)] = latencyNanos;
+        }
+
+        private Duration delay() {
+            long now = System.nanoTime();
+            if (now >= nextRefreshNanos) {
+                nextRefreshNanos = now + settings.getRefreshInterval().toNanos();
+                refreshDelay();
+            }
+            return delay;
+        }
+
+        /**
+         * Recomputed at most once per refresh interval from the last window of latencies
+         */
+        private void refreshDelay() {
+            int count = (int) Math.min(samples.get(), latencies.length);
+            if (count < settings.getMinSamples()) {
+                return;
+            }
+            long[] window = Arrays.copyOf(latencies, count);
+            Arrays.sort(window);
+            long percentile = window[(int) Math.min(count - 1, Math.ceil(settings.getPercentile() * count) - 1)];
+            Duration observed = Duration.ofNanos(percentile);
+            delay = observed.compareTo(settings.getMinDelay()) < 0 ? settings.getMinDelay()
+                    : observed.compareTo(settings.getMaxDelay()) > 0 ? settings.getMaxDelay() : observed;
+        }
+    }
+}
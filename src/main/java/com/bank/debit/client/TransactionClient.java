@@ -1,9 +1,12 @@
 package com.bank.debit.client;
 
 import com.bank.debit.exception.InsufficientFundsException;
+import com.bank.debit.metrics.DebitMetrics;
 import com.bank.debit.model.dto.TransactionResponse;
 import com.bank.debit.model.dto.WithdrawalRequest;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
@@ -12,22 +15,38 @@ import org.springframework.web.reactive.function.client.WebClientResponseExcepti
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 
 @Slf4j
 @Component
 public class TransactionClient {
 
     private final WebClient webClient;
+    private final WithdrawalBatcher withdrawalBatcher;
+    private final DebitMetrics debitMetrics;
 
-    public TransactionClient(WebClient.Builder webClientBuilder,
-                             @Value("${transaction.service.url}") String customerServiceUrl) {
+    public TransactionClient(@Qualifier("transactionWebClientBuilder") WebClient.Builder webClientBuilder,
+                             @Value("${transaction.service.url}") String customerServiceUrl,
+                             @Value("${transaction.service.bulk.enabled:false}") boolean bulkEnabled,
+                             @Value("${transaction.service.bulk.uri:/api/transactions/withdrawal/bulk}") String bulkUri,
+                             @Value("${transaction.service.bulk.max-items:50}") int bulkMaxItems,
+                             @Value("${transaction.service.bulk.linger:PT0.005S}") Duration bulkLinger,
+                             @Value("${transaction.service.bulk.max-in-flight:8}") int bulkMaxInFlight,
+                             @Value("${transaction.service.bulk.recheck-interval:PT5M}") Duration bulkRecheckInterval,
+                             @Value("${transaction.service.bulk.timeout:PT5S}") Duration bulkTimeout,
+                             DebitMetrics debitMetrics) {
         this.webClient = webClientBuilder
                 .baseUrl(customerServiceUrl)
                 .build();
+        this.withdrawalBatcher = bulkEnabled
+                ? new WithdrawalBatcher(webClient, bulkUri, bulkMaxItems, bulkLinger, bulkMaxInFlight,
+                        bulkRecheckInterval, bulkTimeout, this::sendWithdrawal)
+                : null;
+        this.debitMetrics = debitMetrics;
     }
 
     public Mono<TransactionResponse> processWithdrawal(String accountId, BigDecimal amount, String description) {
-        log.info("Llamando al servicio de transacciones - AccountId: {}, Amount: {}", accountId, amount);
+        log.debug("Llamando al servicio de transacciones - AccountId: {}, Amount: {}", accountId, amount);
 
         WithdrawalRequest request = WithdrawalRequest.builder()
                 .accountId(accountId)
@@ -35,33 +54,12 @@ public class TransactionClient {
                 .description(description)
                 .build();
 
-        return webClient.post()
-                .uri("/api/transactions/withdrawal")
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(TransactionResponse.class)
-                .flatMap(response -> {
-                    // Verificar si la transacción falló
-                    if ("FAILED".equalsIgnoreCase(response.getStatus().toString())) {
-                        log.warn("Transacción fallida - Account: {}, Status: {}, Error: {}",
-                                accountId, response.getStatus(), response.getErrorMessage());
-
-                        // Verificar si es por fondos insuficientes
-                        if (response.getErrorMessage() != null &&
-                                response.getErrorMessage().contains("Insufficient funds")) {
-                            return Mono.error(new InsufficientFundsException(response.getErrorMessage()));
-                        }
-
-                        // Otro tipo de error
-                        return Mono.error(new RuntimeException(
-                                "Transaction failed: " + response.getErrorMessage()));
-                    }
+        Mono<TransactionResponse> call = withdrawalBatcher != null
+                ? debitMetrics.timeClient("transaction", "withdrawal_bulk", withdrawalBatcher.submit(request))
+                : debitMetrics.timeClient("transaction", "withdrawal", sendWithdrawal(request));
 
-                    // Transacción exitosa
-                    log.info("Transacción exitosa - TransactionId: {}, Status: {}",
-                            response.getId(), response.getStatus());
-                    return Mono.just(response);
-                })
+        return call
+                .flatMap(response -> verifyResponse(accountId, response))
                 .doOnError(error -> {
                     if (!(error instanceof InsufficientFundsException)) {
                         log.error("Error inesperado en transacción para account {}: {}",
@@ -70,4 +68,42 @@ public class TransactionClient {
                 });
     }
 
+    private Mono<TransactionResponse> sendWithdrawal(WithdrawalRequest request) {
+        return webClient.post()
+                .uri("/api/transactions/withdrawal")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(TransactionResponse.class);
+    }
+
+    private Mono<TransactionResponse> verifyResponse(String accountId, TransactionResponse response) {
+        // Verificar si la transacción falló
+        if ("FAILED".equalsIgnoreCase(response.getStatus().toString())) {
+            log.warn("Transacción fallida - Account: {}, Status: {}, Error: {}",
+                    accountId, response.getStatus(), response.getErrorMessage());
+
+            // Verificar si es por fondos insuficientes
+            if (response.getErrorMessage() != null &&
+                    response.getErrorMessage().contains("Insufficient funds")) {
+                return Mono.error(new InsufficientFundsException(response.getErrorMessage()));
+            }
+
+            // Otro tipo de error
+            return Mono.error(new RuntimeException(
+                    "Transaction failed: " + response.getErrorMessage()));
+        }
+
+        // Transacción exitosa
+        log.debug("Transacción exitosa - TransactionId: {}, Status: {}",
+                response.getId(), response.getStatus());
+        return Mono.just(response);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (withdrawalBatcher != null) {
+            withdrawalBatcher.shutdown();
+        }
+    }
+
 }
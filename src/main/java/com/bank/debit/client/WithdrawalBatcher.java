@@ -0,0 +1,234 @@
+package com.bank.debit.client;
+
+import com.bank.debit.deadline.Deadline;
+import com.bank.debit.exception.DeadlineExceededException;
+import com.bank.debit.exception.ServiceUnavailableException;
+import com.bank.debit.exception.WithdrawalOutcomeUnknownException;
+import com.bank.debit.model.dto.TransactionResponse;
+import com.bank.debit.model.dto.WithdrawalRequest;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Micro-batching of withdrawals to the Transaction Service.
+ * Pending withdrawals are gathered for a short linger window or up to a maximum number
+ * of items, sent as one bulk request, and each result is handed back to its caller.
+ * When the bulk endpoint is not available the items are sent as single calls.
+ * A bulk request that times out, or whose results cannot be matched to its items, fails
+ * every caller of the batch with WithdrawalOutcomeUnknownException.
+ * Each item keeps its caller's Reactor context: the bulk request is sent in the context of
+ * the item with the tightest deadline (trace parent and remaining budget), and items whose
+ * deadline already expired are failed without being sent.
+ */
+@Slf4j
+class WithdrawalBatcher {
+
+    private final WebClient webClient;
+    private final String bulkUri;
+    private final Duration recheckInterval;
+    private final Duration bulkTimeout;
+    private final Function<WithdrawalRequest, Mono<TransactionResponse>> singleCall;
+    private final Sinks.Many<PendingWithdrawal> pending = Sinks.many().unicast().onBackpressureBuffer();
+    private final Sinks.Empty<Void> drained = Sinks.empty();
+    private final Set<PendingWithdrawal> outstanding = ConcurrentHashMap.newKeySet();
+    private final AtomicLong bulkUnavailableUntil = new AtomicLong();
+    private final Disposable subscription;
+    private volatile boolean closed;
+
+    WithdrawalBatcher(WebClient webClient,
+                      String bulkUri,
+                      int maxItems,
+                      Duration linger,
+                      int maxInFlightBatches,
+                      Duration recheckInterval,
+                      Duration bulkTimeout,
+                      Function<WithdrawalRequest, Mono<TransactionResponse>> singleCall) {
+        this.webClient = webClient;
+        this.bulkUri = bulkUri;
+        this.recheckInterval = recheckInterval;
+        this.bulkTimeout = bulkTimeout;
+        this.singleCall = singleCall;
+        this.subscription = pending.asFlux()
+                .bufferTimeout(maxItems, linger, true)
+                .flatMap(batch -> dispatch(batch).onErrorResume(error -> Mono.empty()), maxInFlightBatches)
+                .doFinally(signal -> drained.tryEmitEmpty())
+                .subscribe();
+    }
+
+    /**
+     * Queue a withdrawal for the next bulk request, or send it alone while the bulk endpoint is unavailable
+     * @param request the withdrawal request
+     * @return Mono of the raw TransactionResponse for this request
+     */
+    Mono<TransactionResponse> submit(WithdrawalRequest request) {
+        if (!isBulkAvailable()) {
+            return singleCall.apply(request);
+        }
+        return Mono.deferContextual(context -> {
+            if (closed) {
+                return Mono.error(new ServiceUnavailableException("Withdrawal batcher is shut down"));
+            }
+            PendingWithdrawal item = new PendingWithdrawal(request, Sinks.one(), context);
+            outstanding.add(item);
+            try {
+                pending.emitNext(item, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+            } catch (Sinks.EmissionException e) {
+                outstanding.remove(item);
+                return Mono.error(new ServiceUnavailableException("Withdrawal batcher is shut down"));
+            }
+            return item.result().asMono()
+                    .doFinally(signal -> outstanding.remove(item));
+        });
+    }
+
+    /**
+     * Stop accepting withdrawals, dispatch the ones already queued and wait up to the bulk
+     * timeout for the batches in flight. Callers still waiting afterwards are failed.
+     */
+    void shutdown() {
+        closed = true;
+        pending.tryEmitComplete();
+        drained.asMono()
+                .timeout(bulkTimeout)
+                .onErrorResume(error -> Mono.empty())
+                .block();
+        subscription.dispose();
+        outstanding.forEach(item -> item.result().tryEmitError(new WithdrawalOutcomeUnknownException(
+                "Withdrawal on account " + item.request().getAccountId() + " was pending at shutdown")));
+    }
+
+    private boolean isBulkAvailable() {
+        return System.currentTimeMillis() >= bulkUnavailableUntil.get();
+    }
+
+    private Mono<Void> dispatch(List<PendingWithdrawal> queued) {
+        List<PendingWithdrawal> batch = withoutExpired(queued);
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+        if (batch.size() == 1 || !isBulkAvailable()) {
+            return sendSingly(batch);
+        }
+
+        log.debug("Enviando lote de {} retiros al servicio de transacciones", batch.size());
+
+        return webClient.post()
+                .uri(bulkUri)
+                .bodyValue(batch.stream().map(PendingWithdrawal::request).toList())
+                .retrieve()
+                .bodyToFlux(TransactionResponse.class)
+                .collectList()
+                .timeout(bulkTimeout, Mono.error(() -> new WithdrawalOutcomeUnknownException(String.format(
+                        "Bulk withdrawal of %d items did not answer within %s", batch.size(), bulkTimeout))))
+                // Sent with the tightest budget of the batch; each caller still waits only for its own
+                .contextWrite(Context.of(tightest(batch).context()))
+                .flatMap(responses -> {
+                    String mismatch = mismatch(batch, responses);
+                    if (mismatch != null) {
+                        // Results cannot be attributed: none of them is handed out
+                        return Mono.error(new WithdrawalOutcomeUnknownException(mismatch));
+                    }
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.get(i).result().tryEmitValue(responses.get(i));
+                    }
+                    return Mono.<Void>empty();
+                })
+                .onErrorResume(this::isBulkNotSupported, error -> {
+                    // Nothing was processed, so falling back to single calls is safe
+                    log.warn("Endpoint de retiros en lote no disponible ({}), usando llamadas individuales por {}",
+                            error.getMessage(), recheckInterval);
+                    bulkUnavailableUntil.set(System.currentTimeMillis() + recheckInterval.toMillis());
+                    return sendSingly(batch);
+                })
+                .doOnError(error -> {
+                    log.error("Error en retiro en lote de {} ítems: {}", batch.size(), error.getMessage());
+                    batch.forEach(item -> item.result().tryEmitError(error));
+                });
+    }
+
+    /**
+     * Fail the items whose deadline expired while queued; they were never sent
+     */
+    private List<PendingWithdrawal> withoutExpired(List<PendingWithdrawal> batch) {
+        return batch.stream()
+                .filter(item -> {
+                    Deadline deadline = Deadline.from(item.context());
+                    if (deadline != null && deadline.isExpired()) {
+                        item.result().tryEmitError(new DeadlineExceededException("Request deadline exceeded"));
+                        return false;
+                    }
+                    return true;
+                })
+                .toList();
+    }
+
+    /**
+     * The item whose deadline expires first, or the first item when none has a deadline
+     */
+    private PendingWithdrawal tightest(List<PendingWithdrawal> batch) {
+        return batch.stream()
+                .filter(item -> Deadline.from(item.context()) != null)
+                .min(Comparator.comparing(item -> Deadline.from(item.context()).remaining()))
+                .orElse(batch.get(0));
+    }
+
+    /**
+     * Results must come back one per item, in request order
+     * @return the mismatch found, or null when every result matches its item
+     */
+    private String mismatch(List<PendingWithdrawal> batch, List<TransactionResponse> responses) {
+        if (responses.size() != batch.size()) {
+            return String.format("Bulk withdrawal returned %d results for %d requests",
+                    responses.size(), batch.size());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            String requested = batch.get(i).request().getAccountId();
+            String answered = responses.get(i).getAccountId();
+            if (!requested.equals(answered)) {
+                return String.format("Bulk withdrawal result %d is for account %s, expected %s",
+                        i, answered, requested);
+            }
+        }
+        return null;
+    }
+
+    private Mono<Void> sendSingly(List<PendingWithdrawal> batch) {
+        return Flux.fromIterable(batch)
+                .flatMap(item -> singleCall.apply(item.request())
+                        .contextWrite(Context.of(item.context()))
+                        .doOnSuccess(item.result()::tryEmitValue)
+                        .doOnError(item.result()::tryEmitError)
+                        .onErrorResume(error -> Mono.empty()))
+                .then();
+    }
+
+    private boolean isBulkNotSupported(Throwable error) {
+        if (error instanceof WebClientResponseException responseException) {
+            int status = responseException.getStatusCode().value();
+            return status == HttpStatus.NOT_FOUND.value()
+                    || status == HttpStatus.METHOD_NOT_ALLOWED.value()
+                    || status == HttpStatus.NOT_IMPLEMENTED.value();
+        }
+        return false;
+    }
+
+    private record PendingWithdrawal(WithdrawalRequest request,
+                                     Sinks.One<TransactionResponse> result,
+                                     ContextView context) {
+    }
+}
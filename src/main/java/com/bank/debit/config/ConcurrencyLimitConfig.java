@@ -0,0 +1,17 @@
+package com.bank.debit.config;
+
+import com.bank.debit.limit.ConcurrencyLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public ConcurrencyLimiter concurrencyLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        return new ConcurrencyLimiter(properties, meterRegistry);
+    }
+}
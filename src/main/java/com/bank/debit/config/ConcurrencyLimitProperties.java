@@ -0,0 +1,39 @@
+package com.bank.debit.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Adaptive concurrency limits per debit endpoint (create, associate, transaction,
+ * transaction_batch). Endpoints without an entry use the defaults.
+ */
+@Data
+@ConfigurationProperties(prefix = "debit.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+    private Limit defaults = new Limit();
+    private Map<String, Limit> endpoints = new HashMap<>();
+
+    public Limit forEndpoint(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaults);
+    }
+
+    @Data
+    public static class Limit {
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+        /** Tolerated ratio of short-term to long-term latency before the limit shrinks */
+        private double rttTolerance = 1.5;
+        /** Multiplicative decrease applied when a request times out or a downstream is unavailable */
+        private double backoffRatio = 0.9;
+        private double smoothing = 0.2;
+        private int shortWindow = 10;
+        private int longWindow = 600;
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+}
@@ -0,0 +1,28 @@
+package com.bank.debit.config;
+
+import com.bank.debit.deadline.DeadlineExchangeFilter;
+import com.bank.debit.deadline.DeadlineWebFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(DeadlineProperties.class)
+@ConditionalOnProperty(name = "debit.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineConfig {
+
+    @Bean
+    public DeadlineWebFilter deadlineWebFilter(DeadlineProperties properties) {
+        return new DeadlineWebFilter(properties);
+    }
+
+    /**
+     * Picked up by every downstream WebClient builder through WebClientConfig
+     */
+    @Bean
+    public WebClientCustomizer deadlineWebClientCustomizer() {
+        return builder -> builder.filter(new DeadlineExchangeFilter());
+    }
+}
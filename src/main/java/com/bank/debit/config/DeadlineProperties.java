@@ -0,0 +1,28 @@
+package com.bank.debit.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Request deadlines per debit endpoint (create, associate, transaction, transaction_batch).
+ * Endpoints without an entry, and all reads, use the default timeout, except
+ * transaction_batch: its items get batchItemTimeout each, counted from when the item starts.
+ */
+@Data
+@ConfigurationProperties(prefix = "debit.deadline")
+public class DeadlineProperties {
+
+    private boolean enabled = true;
+    private Duration defaultTimeout = Duration.ofSeconds(5);
+    /** Upper bound for deadlines requested through the inbound header */
+    private Duration maxTimeout = Duration.ofSeconds(30);
+    private Map<String, Duration> endpoints = new HashMap<>();
+    private Duration batchItemTimeout = Duration.ofSeconds(5);
+
+    public Duration forEndpoint(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaultTimeout);
+    }
+}
@@ -0,0 +1,28 @@
+package com.bank.debit.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for publishing debit domain events to Kafka through the Mongo outbox
+ */
+@Data
+@ConfigurationProperties(prefix = "debit.events")
+public class DebitEventProperties {
+
+    private boolean enabled = false;
+    private String topic = "debit-events";
+    private String bootstrapServers = "localhost:9092";
+    private String acks = "all";
+    private int lingerMs = 20;
+    private int batchSize = 64 * 1024;
+    private Duration pollInterval = Duration.ofMillis(200);
+    private int relayBatchSize = 500;
+    private Duration relayLease = Duration.ofSeconds(30);
+    private int outboxInsertRetries = 3;
+    private Duration outboxInsertBackoff = Duration.ofMillis(50);
+    private int outboxRecoveryRetries = 20;
+    private Duration outboxRecoveryMaxBackoff = Duration.ofMinutes(1);
+    private Duration outboxRetention = Duration.ofDays(3);
+}
@@ -0,0 +1,23 @@
+package com.bank.debit.config;
+
+import com.bank.debit.client.HedgeExclusionServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Load balancer configuration applied to every downstream client (registered through
+ * LoadBalancerClients on WebClientConfig). Not a @Configuration on purpose: it must only
+ * be loaded in each client's child context, never by component scanning.
+ */
+public class HedgingLoadBalancerConfiguration {
+
+    @Bean
+    public ServiceInstanceListSupplier hedgeAwareServiceInstanceListSupplier(ConfigurableApplicationContext context) {
+        return ServiceInstanceListSupplier.builder()
+                .withDiscoveryClient()
+                .withCaching()
+                .with((ctx, delegate) -> new HedgeExclusionServiceInstanceListSupplier(delegate))
+                .build(context);
+    }
+}
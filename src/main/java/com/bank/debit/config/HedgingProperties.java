@@ -0,0 +1,39 @@
+package com.bank.debit.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Opt-in request hedging for idempotent downstream reads, per client (account, customer).
+ * Clients without an entry are not hedged.
+ */
+@Data
+@ConfigurationProperties(prefix = "webclient.hedging")
+public class HedgingProperties {
+
+    private Map<String, Hedge> clients = new HashMap<>();
+
+    public Hedge forClient(String clientName) {
+        return clients.getOrDefault(clientName, new Hedge());
+    }
+
+    @Data
+    public static class Hedge {
+        private boolean enabled = false;
+        /** Observed latency percentile after which the hedge is sent */
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(20);
+        /** Also used until enough latencies have been observed */
+        private Duration maxDelay = Duration.ofMillis(500);
+        private int window = 1000;
+        private int minSamples = 100;
+        private Duration refreshInterval = Duration.ofSeconds(1);
+        /** Hedges allowed per primary request, e.g. 0.1 = at most 10% extra load */
+        private double budgetRatio = 0.1;
+        /** Hedges that can be sent in a burst once the budget has accumulated */
+        private int budgetBurst = 10;
+    }
+}
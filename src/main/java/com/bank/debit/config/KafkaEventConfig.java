@@ -0,0 +1,53 @@
+package com.bank.debit.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderOptions;
+
+@Configuration
+@EnableConfigurationProperties(DebitEventProperties.class)
+public class KafkaEventConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "debit.events.enabled", havingValue = "true")
+    public KafkaSender<String, String> debitEventSender(DebitEventProperties properties) {
+        return KafkaSender.create(senderOptions(properties));
+    }
+
+    /**
+     * Transactions used to store a state change together with its outbox event
+     */
+    @Bean
+    @ConditionalOnProperty(name = "debit.events.enabled", havingValue = "true")
+    public TransactionalOperator outboxTransactionalOperator(ReactiveMongoDatabaseFactory databaseFactory) {
+        return TransactionalOperator.create(new ReactiveMongoTransactionManager(databaseFactory));
+    }
+
+    /**
+     * Producer options with idempotent writes and configurable linger/batch size.
+     * Record failures are reported per result instead of stopping the send.
+     */
+    public static SenderOptions<String, String> senderOptions(DebitEventProperties properties) {
+        Map<String, Object> producerProps = new HashMap<>();
+        producerProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, properties.getBootstrapServers());
+        producerProps.put(ProducerConfig.ACKS_CONFIG, properties.getAcks());
+        producerProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        producerProps.put(ProducerConfig.LINGER_MS_CONFIG, properties.getLingerMs());
+        producerProps.put(ProducerConfig.BATCH_SIZE_CONFIG, properties.getBatchSize());
+        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+
+        return SenderOptions.<String, String>create(producerProps)
+                .stopOnError(false);
+    }
+}
@@ -0,0 +1,43 @@
+package com.bank.debit.config;
+
+import com.bank.debit.cache.BalanceHintCache;
+import com.bank.debit.cache.ReactiveLookupCache;
+import com.bank.debit.client.AccountClient;
+import com.bank.debit.client.CustomerClient;
+import com.bank.debit.model.dto.AccountResponse;
+import com.bank.debit.model.dto.CustomerResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Read-through caches in front of the Customer and Account service lookups
+ */
+@Configuration
+public class LookupCacheConfig {
+
+    @Bean
+    public ReactiveLookupCache<CustomerResponse> customerLookupCache(
+            CustomerClient customerClient,
+            MeterRegistry meterRegistry,
+            @Value("${debit.lookup-cache.customer.ttl:PT30S}") Duration ttl,
+            @Value("${debit.lookup-cache.customer.max-size:10000}") long maxSize) {
+        return new ReactiveLookupCache<>("customerLookup", ttl, maxSize,
+                customerClient::getCustomerById, meterRegistry);
+    }
+
+    @Bean
+    public ReactiveLookupCache<AccountResponse> accountLookupCache(
+            AccountClient accountClient,
+            BalanceHintCache balanceHintCache,
+            MeterRegistry meterRegistry,
+            @Value("${debit.lookup-cache.account.ttl:PT30S}") Duration ttl,
+            @Value("${debit.lookup-cache.account.max-size:10000}") long maxSize) {
+        return new ReactiveLookupCache<>("accountLookup", ttl, maxSize,
+                accountId -> accountClient.getAccount(accountId)
+                        .doOnNext(account -> balanceHintCache.recordBalance(accountId, account.getBalance())),
+                meterRegistry);
+    }
+}
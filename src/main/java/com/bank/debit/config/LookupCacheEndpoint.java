@@ -0,0 +1,57 @@
+package com.bank.debit.config;
+
+import com.bank.debit.cache.ReactiveLookupCache;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint to inspect and invalidate the lookup caches
+ * when the upstream customer or account status changes.
+ */
+@Component
+@Endpoint(id = "lookupcaches")
+public class LookupCacheEndpoint {
+
+    private final Map<String, ReactiveLookupCache<?>> caches;
+
+    public LookupCacheEndpoint(List<ReactiveLookupCache<?>> caches) {
+        this.caches = caches.stream()
+                .collect(Collectors.toMap(ReactiveLookupCache::getName, Function.identity()));
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> caches() {
+        Map<String, Map<String, Object>> report = new LinkedHashMap<>();
+        caches.forEach((name, cache) -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("size", cache.size());
+            stats.put("hits", cache.stats().hitCount());
+            stats.put("misses", cache.stats().missCount());
+            stats.put("evictions", cache.stats().evictionCount());
+            report.put(name, stats);
+        });
+        return report;
+    }
+
+    @DeleteOperation
+    public void invalidate(@Selector String cache, @Nullable String key) {
+        ReactiveLookupCache<?> lookupCache = caches.get(cache);
+        if (lookupCache == null) {
+            return;
+        }
+        if (key == null) {
+            lookupCache.invalidateAll();
+        } else {
+            lookupCache.invalidate(key);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.bank.debit.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import java.time.Duration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Percentile histograms and SLO buckets for every debit.* timer, exported through
+     * Actuator (/actuator/prometheus).
+     */
+    @Bean
+    public MeterFilter debitTimerDistribution() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER || !id.getName().startsWith("debit.")) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .serviceLevelObjectives(
+                                nanos(Duration.ofMillis(25)),
+                                nanos(Duration.ofMillis(50)),
+                                nanos(Duration.ofMillis(100)),
+                                nanos(Duration.ofMillis(250)),
+                                nanos(Duration.ofMillis(500)),
+                                nanos(Duration.ofSeconds(1)),
+                                nanos(Duration.ofSeconds(2)))
+                        .minimumExpectedValue(nanos(Duration.ofMillis(1)))
+                        .maximumExpectedValue(nanos(Duration.ofSeconds(10)))
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+
+    private static double nanos(Duration duration) {
+        return (double) duration.toNanos();
+    }
+}
@@ -0,0 +1,231 @@
+package com.bank.debit.config;
+
+import com.bank.debit.model.entity.Debit;
+import com.bank.debit.model.entity.IdempotencyRecord;
+import com.bank.debit.model.entity.OutboxEvent;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Creates the indexes declared on the entities and the idempotency and outbox
+ * TTL indexes at startup (idempotent), and reports any debit_cards query shape
+ * that does not hit an index.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexInitializer implements ApplicationRunner {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(30);
+
+    // Obsolete index name -> declared index replacing it on the same keys
+    private static final Map<String, String> REPLACED_DEBIT_INDEXES =
+            Map.of("customer_primary_account_idx", "customer_primary_account_uidx");
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final DebitEventProperties debitEventProperties;
+
+    @Value("${debit.mongo.ensure-indexes:true}")
+    private boolean ensureIndexes;
+
+    @Value("${debit.idempotency.ttl:PT24H}")
+    private Duration idempotencyTtl;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!ensureIndexes) {
+            log.info("Creación de índices deshabilitada (debit.mongo.ensure-indexes=false)");
+            return;
+        }
+
+        replaceObsoleteIndexes(Debit.class, REPLACED_DEBIT_INDEXES)
+                .then(ensureDeclaredIndexes(Debit.class))
+                .then(ensureDeclaredIndexes(OutboxEvent.class))
+                .then(ensureTtlIndex(IdempotencyRecord.class, "createdAt", "idempotency_ttl_idx", idempotencyTtl))
+                .then(ensureTtlIndex(OutboxEvent.class, "publishedAt", "outbox_published_ttl_idx",
+                        debitEventProperties.getOutboxRetention()))
+                .then(reportQueryShapes())
+                .timeout(STARTUP_TIMEOUT)
+                .onErrorResume(error -> {
+                    log.error("No se pudo completar la inicialización de índices: {}", error.getMessage());
+                    return Mono.empty();
+                })
+                .block();
+    }
+
+    private Mono<Void> ensureDeclaredIndexes(Class<?> entityClass) {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(
+                mongoTemplate.getConverter().getMappingContext());
+        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(entityClass);
+        String collection = mongoTemplate.getCollectionName(entityClass);
+
+        return Flux.fromIterable(resolver.resolveIndexFor(entityClass))
+                .concatMap(index -> indexOps.ensureIndex(index)
+                        .doOnNext(name -> log.info("Índice verificado en {}: {}", collection, name))
+                        .onErrorResume(error -> {
+                            // e.g. existing duplicated active cards prevent the unique index
+                            log.error("No se pudo crear el índice {} en {}: {}",
+                                    index.getIndexKeys(), collection, error.getMessage());
+                            return Mono.empty();
+                        }))
+                .then();
+    }
+
+    /**
+     * Replace obsolete indexes by their declared successors without leaving the keys
+     * unindexed: the obsolete index is only dropped once its replacement is built.
+     */
+    private Mono<Void> replaceObsoleteIndexes(Class<?> entityClass, Map<String, String> replacements) {
+        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(entityClass);
+        String collection = mongoTemplate.getCollectionName(entityClass);
+        Map<String, IndexDefinition> declared = new HashMap<>();
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(entityClass)
+                .forEach(index -> declared.put(index.getIndexOptions().getString("name"), index));
+
+        return indexOps.getIndexInfo()
+                .filter(indexInfo -> declared.containsKey(replacements.get(indexInfo.getName())))
+                .concatMap(obsolete -> {
+                    IndexDefinition replacement = declared.get(replacements.get(obsolete.getName()));
+                    return indexOps.ensureIndex(replacement)
+                            .map(name -> true)
+                            .onErrorResume(error -> {
+                                log.warn("El índice {} no puede coexistir con {} en {}: {}",
+                                        replacements.get(obsolete.getName()), obsolete.getName(), collection,
+                                        error.getMessage());
+                                return Mono.just(false);
+                            })
+                            .flatMap(built -> built
+                                    ? dropIndex(indexOps, collection, obsolete.getName())
+                                    : swapIndex(indexOps, collection, obsolete, replacement));
+                })
+                .then();
+    }
+
+    /**
+     * Same keys with different options (e.g. unique) cannot coexist, so the obsolete index is
+     * dropped right before building the replacement and restored when the build fails
+     * (e.g. duplicated cards prevent the unique index).
+     */
+    private Mono<Void> swapIndex(ReactiveIndexOperations indexOps, String collection,
+                                 IndexInfo obsolete, IndexDefinition replacement) {
+        String replacementName = replacement.getIndexOptions().getString("name");
+
+        return dropIndex(indexOps, collection, obsolete.getName())
+                .then(indexOps.ensureIndex(replacement))
+                .doOnNext(name -> log.info("Índice {} reemplazado por {} en {}", obsolete.getName(), name, collection))
+                .then()
+                .onErrorResume(error -> {
+                    log.error("No se pudo crear el índice {} en {}, se restaura {}: {}",
+                            replacementName, collection, obsolete.getName(), error.getMessage());
+                    return indexOps.ensureIndex(restorable(obsolete)).then();
+                });
+    }
+
+    private Mono<Void> dropIndex(ReactiveIndexOperations indexOps, String collection, String indexName) {
+        return indexOps.dropIndex(indexName)
+                .doOnSuccess(ignored -> log.info("Índice obsoleto eliminado en {}: {}", collection, indexName));
+    }
+
+    private Index restorable(IndexInfo indexInfo) {
+        Index index = new Index().named(indexInfo.getName());
+        indexInfo.getIndexFields().forEach(field -> index.on(field.getKey(), field.getDirection()));
+        if (indexInfo.isUnique()) {
+            index.unique();
+        }
+        if (indexInfo.isSparse()) {
+            index.sparse();
+        }
+        return index;
+    }
+
+    private Mono<Void> ensureTtlIndex(Class<?> entityClass, String field, String indexName, Duration ttl) {
+        Index ttlIndex = new Index()
+                .on(field, Sort.Direction.ASC)
+                .named(indexName)
+                .expire(ttl);
+        String collection = mongoTemplate.getCollectionName(entityClass);
+
+        return mongoTemplate.indexOps(entityClass)
+                .ensureIndex(ttlIndex)
+                .doOnNext(name -> log.info("Índice TTL verificado en {}: {} ({})", collection, name, ttl))
+                .onErrorResume(error -> {
+                    // e.g. the TTL changed: drop the index so it is recreated on next startup
+                    log.error("No se pudo crear el índice TTL {} en {}: {}", indexName, collection, error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Explain each repository query shape and warn when the winning plan is a collection scan.
+     */
+    private Mono<Void> reportQueryShapes() {
+        Map<String, Document> shapes = new LinkedHashMap<>();
+        shapes.put("findByCustomerIdAndPrimaryAccountId",
+                new Document("customerId", "probe").append("primaryAccountId", "probe"));
+        shapes.put("findByCustomerIdAndActiveTrue",
+                new Document("customerId", "probe").append("active", true));
+        shapes.put("findByCustomerId", new Document("customerId", "probe"));
+        shapes.put("associatedAccounts", new Document("associatedAccounts", "probe"));
+
+        String collection = mongoTemplate.getCollectionName(Debit.class);
+
+        return Flux.fromIterable(shapes.entrySet())
+                .concatMap(shape -> mongoTemplate.getCollection(collection)
+                        .flatMap(mongoCollection -> Mono.from(
+                                mongoCollection.find(shape.getValue()).explain(Document.class)))
+                        .doOnNext(explain -> {
+                            List<String> stages = winningPlanStages(explain);
+                            if (stages.contains("COLLSCAN") || !stages.contains("IXSCAN")) {
+                                log.warn("La consulta {} no usa índice - Plan: {}", shape.getKey(), stages);
+                            } else {
+                                log.info("La consulta {} usa índice - Plan: {}", shape.getKey(), stages);
+                            }
+                        }))
+                .then();
+    }
+
+    private List<String> winningPlanStages(Document explain) {
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        if (queryPlanner == null) {
+            return List.of();
+        }
+        List<String> stages = new ArrayList<>();
+        collectStages(queryPlanner.get("winningPlan"), stages);
+        return stages;
+    }
+
+    private void collectStages(Object node, List<String> stages) {
+        if (node instanceof Document document) {
+            Object stage = document.get("stage");
+            if (stage instanceof String stageName) {
+                stages.add(stageName);
+            }
+            document.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+}
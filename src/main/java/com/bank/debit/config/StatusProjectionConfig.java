@@ -0,0 +1,37 @@
+package com.bank.debit.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOptions;
+
+@Configuration
+@EnableConfigurationProperties(StatusProjectionProperties.class)
+public class StatusProjectionConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "debit.projection.enabled", havingValue = "true")
+    public KafkaReceiver<String, String> statusEventReceiver(StatusProjectionProperties properties) {
+        Map<String, Object> consumerProps = new HashMap<>();
+        consumerProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, properties.getBootstrapServers());
+        // A per-replica group id makes every replica see every change (broadcast)
+        consumerProps.put(ConsumerConfig.GROUP_ID_CONFIG, properties.isBroadcast()
+                ? properties.getGroupId() + "-" + UUID.randomUUID()
+                : properties.getGroupId());
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        consumerProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        consumerProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+
+        ReceiverOptions<String, String> options = ReceiverOptions.<String, String>create(consumerProps)
+                .subscription(List.of(properties.getCustomerTopic(), properties.getAccountTopic()));
+        return KafkaReceiver.create(options);
+    }
+}
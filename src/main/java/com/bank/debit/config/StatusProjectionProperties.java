@@ -0,0 +1,29 @@
+package com.bank.debit.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the customer/account status projection consumed from Kafka.
+ * With broadcast (the default) every replica consumes all partitions under its own group id,
+ * so each one invalidates its in-memory caches for every change; the topics should be compacted
+ * since a new group replays them from the start.
+ */
+@Data
+@ConfigurationProperties(prefix = "debit.projection")
+public class StatusProjectionProperties {
+
+    private boolean enabled = false;
+    private String bootstrapServers = "localhost:9092";
+    private String groupId = "debit-status-projection";
+    private String customerTopic = "customer-events";
+    private String accountTopic = "account-events";
+    private boolean broadcast = true;
+    /** How long an entry is trusted when the consumer is not caught up */
+    private Duration maxAge = Duration.ofMinutes(10);
+    /** Records the consumer may be behind and still count as caught up */
+    private long maxLag = 100;
+    private Duration lagCheckInterval = Duration.ofSeconds(10);
+    private long cacheMaxSize = 100_000;
+}
@@ -0,0 +1,24 @@
+package com.bank.debit.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+
+@Configuration
+public class TracingConfig {
+
+    /**
+     * One span per Mongo command (repository calls, template queries, change streams).
+     * The context provider reads the parent observation from the Reactor context, so the
+     * command spans nest under the request that issued them.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoObservationCustomizer(ObservationRegistry observationRegistry) {
+        return builder -> builder
+                .contextProvider(ContextProviderFactory.create(observationRegistry))
+                .addCommandListener(new MongoObservationCommandListener(observationRegistry));
+    }
+}
@@ -1,16 +1,121 @@
 package com.bank.debit.config;
 
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+@Slf4j
 @Configuration
+@EnableConfigurationProperties({WebClientPoolProperties.class, HedgingProperties.class})
+@LoadBalancerClients(defaultConfiguration = HedgingLoadBalancerConfiguration.class)
 public class WebClientConfig {
 
+    private static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(2);
+
+    private final List<ConnectionProvider> connectionProviders = new CopyOnWriteArrayList<>();
+    private final ObjectProvider<WebClientCustomizer> customizers;
+
+    public WebClientConfig(ObjectProvider<WebClientCustomizer> customizers) {
+        this.customizers = customizers;
+    }
+
     @Bean
+    @Primary
     @LoadBalanced
     public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+        return customized(WebClient.builder());
+    }
+
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder accountWebClientBuilder(WebClientPoolProperties properties) {
+        return pooledBuilder("account", properties.forClient("account"));
+    }
+
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder customerWebClientBuilder(WebClientPoolProperties properties) {
+        return pooledBuilder("customer", properties.forClient("customer"));
+    }
+
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder transactionWebClientBuilder(WebClientPoolProperties properties) {
+        return pooledBuilder("transaction", properties.forClient("transaction"));
+    }
+
+    /**
+     * Builder backed by a dedicated Reactor Netty connection pool, so slow calls to one
+     * downstream don't queue calls to the others. Pool metrics are exported as
+     * reactor.netty.connection.provider.* tagged with the pool name.
+     */
+    private WebClient.Builder pooledBuilder(String clientName, WebClientPoolProperties.Pool pool) {
+        log.info("Pool de conexiones {}: {}", clientName, pool);
+
+        ConnectionProvider connectionProvider = ConnectionProvider.builder(clientName + "-pool")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInBackground())
+                .metrics(pool.isMetrics())
+                .build();
+        connectionProviders.add(connectionProvider);
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) pool.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, pool.isKeepAlive());
+
+        Duration readTimeout = pool.getReadTimeout() != null ? pool.getReadTimeout() : defaultReadTimeout(clientName);
+        if (readTimeout != null) {
+            httpClient = httpClient.responseTimeout(readTimeout);
+        }
+
+        if (pool.isHttp2()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+
+        return customized(WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient)));
+    }
+
+    /**
+     * A withdrawal POST already sent must not be cut by the pool: its wait is governed by
+     * Deadline.boundedWait, which reports the outcome as unknown without cancelling it
+     */
+    private static Duration defaultReadTimeout(String clientName) {
+        return "transaction".equals(clientName) ? null : DEFAULT_READ_TIMEOUT;
+    }
+
+    /**
+     * Apply Boot's WebClientCustomizers (codecs, observation) that the auto-configured builder
+     * would get; without the observation customizer no client span is created and no
+     * traceparent header reaches the downstream services.
+     */
+    private WebClient.Builder customized(WebClient.Builder builder) {
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return builder;
+    }
+
+    @PreDestroy
+    public void disposeConnectionProviders() {
+        connectionProviders.forEach(ConnectionProvider::dispose);
     }
-}
\ No newline at end of file
+}
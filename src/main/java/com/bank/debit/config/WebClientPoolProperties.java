@@ -0,0 +1,41 @@
+package com.bank.debit.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Connection pool settings per downstream client (account, customer, transaction).
+ * Clients without an entry use the defaults.
+ */
+@Data
+@ConfigurationProperties(prefix = "webclient")
+public class WebClientPoolProperties {
+
+    private Map<String, Pool> clients = new HashMap<>();
+
+    public Pool forClient(String clientName) {
+        return clients.getOrDefault(clientName, new Pool());
+    }
+
+    @Data
+    public static class Pool {
+        private int maxConnections = 100;
+        private int pendingAcquireMaxCount = 500;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictInBackground = Duration.ofSeconds(30);
+        private Duration connectTimeout = Duration.ofSeconds(1);
+        /**
+         * Response timeout; when unset, 2s for lookups and none for the transaction client,
+         * whose withdrawal POSTs are bounded by the request deadline instead
+         */
+        private Duration readTimeout;
+        private boolean keepAlive = true;
+        private boolean http2 = false;
+        private boolean metrics = true;
+    }
+}
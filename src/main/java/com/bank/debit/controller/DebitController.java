@@ -1,7 +1,9 @@
 package com.bank.debit.controller;
 
 import com.bank.debit.api.DebitCardsApi;
+import com.bank.debit.limit.ConcurrencyLimiter;
 import com.bank.debit.model.*;
+import com.bank.debit.model.dto.DebitCardFilter;
 import com.bank.debit.service.DebitService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,6 +11,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Slf4j
@@ -17,6 +20,7 @@ import reactor.core.publisher.Mono;
 public class DebitController implements DebitCardsApi {
 
     private final DebitService debitService;
+    private final ConcurrencyLimiter concurrencyLimiter;
 
     @Override
     public Mono<ResponseEntity<DebitCardResponse>> createDebitCard(
@@ -25,11 +29,11 @@ public class DebitController implements DebitCardsApi {
 
         log.info("Recibiendo solicitud para crear tarjeta de débito");
 
-        return createDebitCardRequest
-                .doOnNext(request ->
-                        log.info("Request recibido - CustomerId: {}, AccountId: {}",
-                        request.getCustomerId(), request.getPrimaryAccountId()))
-                .flatMap(debitService::createDebitCard)
+        return concurrencyLimiter.limit("create", createDebitCardRequest
+                        .doOnNext(request ->
+                                log.info("Request recibido - CustomerId: {}, AccountId: {}",
+                                request.getCustomerId(), request.getPrimaryAccountId()))
+                        .flatMap(debitService::createDebitCard))
                 .map(response -> {
                     log.info("Tarjeta de débito creada exitosamente - CardId: {}",
                             response.getId());
@@ -46,11 +50,11 @@ public class DebitController implements DebitCardsApi {
 
         log.info("Recibiendo solicitud para asociar cuenta a tarjeta de débito");
 
-        return associateAccountRequest
-                .doOnNext(request ->
-                        log.info("Request recibido - CustomerId: {}, AccountId: {}",
-                        request.getCustomerId(), request.getAccountId()))
-                .flatMap(debitService::associateAccount)
+        return concurrencyLimiter.limit("associate", associateAccountRequest
+                        .doOnNext(request ->
+                                log.info("Request recibido - CustomerId: {}, AccountId: {}",
+                                request.getCustomerId(), request.getAccountId()))
+                        .flatMap(debitService::associateAccount))
                 .map(response -> {
                     log.info("Cuenta asociada exitosamente a la tarjeta - CardId: {}",
                             response.getId());
@@ -63,20 +67,26 @@ public class DebitController implements DebitCardsApi {
     @Override
     public Mono<ResponseEntity<DebitTransactionResponse>> processDebitTransaction(
             Mono<DebitTransactionRequest> debitTransactionRequest,
+            String idempotencyKey,
             ServerWebExchange exchange) {
 
-        log.info("Recibiendo solicitud para procesar transacción con tarjeta de débito");
+        // El resultado (muestreado) y los errores los registra DebitService
+        return concurrencyLimiter.limit("transaction", debitTransactionRequest
+                        .doOnNext(request -> log.debug("Request recibido - DebitCardId: {}, Amount: {}, IdempotencyKey: {}",
+                                request.getDebitCardId(), request.getAmount(), idempotencyKey))
+                        .flatMap(request -> debitService.processTransaction(request, idempotencyKey)))
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
 
-        return debitTransactionRequest
-                .doOnNext(request -> log.info("Request recibido - DebitCardId: {}, Amount: {}",
-                        request.getDebitCardId(), request.getAmount()))
-                .flatMap(debitService::processTransaction)
-                .map(response -> {
-                    log.info("Transacción procesada exitosamente - TransactionId: {}",
-                            response.getTransactionId());
-                    return ResponseEntity.status(HttpStatus.CREATED).body(response);
-                })
-                .doOnError(error -> log.error("Error al procesar transacción: {}", error.getMessage()));
+    @Override
+    public Mono<ResponseEntity<Flux<DebitBatchTransactionResult>>> processDebitTransactionBatch(
+            Flux<DebitTransactionRequest> debitTransactionRequest,
+            ServerWebExchange exchange) {
+
+        log.info("Recibiendo lote de transacciones con tarjeta de débito");
+
+        return Mono.just(ResponseEntity.ok(concurrencyLimiter.limit("transaction_batch",
+                debitService.processTransactionBatch(debitTransactionRequest))));
     }
 
     @Override
@@ -95,6 +105,57 @@ public class DebitController implements DebitCardsApi {
                         id, error.getMessage()));
     }
 
+    @Override
+    public Mono<ResponseEntity<Flux<DebitCardSummary>>> listDebitCards(
+            Boolean active,
+            String customerId,
+            String accountId,
+            String after,
+            Integer limit,
+            ServerWebExchange exchange) {
+
+        log.debug("Recibiendo solicitud para listar tarjetas de débito - After: {}, Limit: {}", after, limit);
+
+        DebitCardFilter filter = DebitCardFilter.builder()
+                .active(active)
+                .customerId(customerId)
+                .accountId(accountId)
+                .build();
+
+        // Streamed as NDJSON/SSE according to Accept, straight from the Mongo cursor
+        return Mono.just(ResponseEntity.ok(debitService.listDebitCards(filter, after, limit)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Flux<DebitCardLookupResult>>> lookupDebitCards(
+            Mono<DebitCardLookupRequest> debitCardLookupRequest,
+            ServerWebExchange exchange) {
+
+        return debitCardLookupRequest
+                .map(request -> ResponseEntity.ok(debitService.lookupDebitCards(request)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Flux<DebitCardResponse>>> getDebitCardsByAccountId(
+            String accountId,
+            ServerWebExchange exchange) {
+
+        log.debug("Recibiendo solicitud para listar tarjetas de débito por cuenta: {}", accountId);
+
+        return Mono.just(ResponseEntity.ok(debitService.getDebitCardsByAccountId(accountId)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<AccountDetachResult>> detachAccountFromDebitCards(
+            String accountId,
+            ServerWebExchange exchange) {
+
+        log.info("Recibiendo solicitud para desasociar la cuenta {} de las tarjetas de débito", accountId);
+
+        return debitService.detachAccountFromDebitCards(accountId)
+                .map(ResponseEntity::ok);
+    }
+
     @Override
     public Mono<ResponseEntity<DebitCardResponse>> getDebitCardByCustomerId(
             String customerId,
@@ -0,0 +1,114 @@
+package com.bank.debit.deadline;
+
+import com.bank.debit.exception.DeadlineExceededException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Request-scoped deadline carried in the Reactor context.
+ * Set once per inbound request by DeadlineWebFilter; downstream calls and withdrawal
+ * attempts only get the time left, and the remaining budget travels to the callees in the
+ * {@link #HEADER} header as relative milliseconds (not an instant, to avoid clock skew).
+ */
+public final class Deadline {
+
+    public static final String HEADER = "X-Deadline-Ms";
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(expiresAtNanos - System.nanoTime());
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    public static Context put(Context context, Deadline deadline) {
+        return context.put(Deadline.class, deadline);
+    }
+
+    public static Deadline from(ContextView context) {
+        return context.getOrDefault(Deadline.class, null);
+    }
+
+    /**
+     * Start a deadline for a unit of work, keeping the current one if it expires sooner
+     */
+    public static Context withTimeout(Context context, Duration timeout) {
+        Deadline current = from(context);
+        Deadline deadline = after(timeout);
+        if (current != null && current.expiresAtNanos - deadline.expiresAtNanos <= 0) {
+            return context;
+        }
+        return put(context, deadline);
+    }
+
+    /**
+     * Bound the source by the time left on the request deadline, if any
+     */
+    public static <T> Mono<T> bounded(Mono<T> source) {
+        return bounded(source, null);
+    }
+
+    /**
+     * Bound the source by its own timeout or the time left on the request deadline,
+     * whichever is shorter. Fails without subscribing if the deadline already expired.
+     * @param source the call to bound
+     * @param timeout the call's own timeout, or null for none
+     */
+    public static <T> Mono<T> bounded(Mono<T> source, Duration timeout) {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = from(context);
+            if (deadline == null) {
+                return timeout == null ? source : source.timeout(timeout);
+            }
+            Duration remaining = deadline.remaining();
+            if (remaining.isNegative() || remaining.isZero()) {
+                return Mono.error(new DeadlineExceededException("Request deadline exceeded"));
+            }
+            if (timeout != null && timeout.compareTo(remaining) <= 0) {
+                return source.timeout(timeout);
+            }
+            return source.timeout(remaining)
+                    .onErrorMap(TimeoutException.class,
+                            error -> new DeadlineExceededException("Request deadline exceeded"));
+        });
+    }
+
+    /**
+     * Wait for the source at most the time left on the deadline, without ever cancelling it.
+     * For calls with a downstream side effect (a withdrawal): once sent, cancelling only loses
+     * the result, so the call runs to completion and the caller gets outcomeUnknown instead.
+     * Fails without subscribing if the deadline already expired.
+     */
+    public static <T> Mono<T> boundedWait(Mono<T> source, Supplier<? extends Throwable> outcomeUnknown) {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = from(context);
+            if (deadline == null) {
+                return source;
+            }
+            Duration remaining = deadline.remaining();
+            if (remaining.isNegative() || remaining.isZero()) {
+                return Mono.error(new DeadlineExceededException("Request deadline exceeded"));
+            }
+            Sinks.One<T> outcome = Sinks.one();
+            source.contextWrite(Context.of(context))
+                    .subscribe(outcome::tryEmitValue, outcome::tryEmitError, outcome::tryEmitEmpty);
+            return outcome.asMono().timeout(remaining, Mono.error(outcomeUnknown));
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package com.bank.debit.deadline;
+
+import com.bank.debit.exception.DeadlineExceededException;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Sends the time left on the request deadline to the downstream service, and does not
+ * send the request at all once it has expired.
+ */
+public class DeadlineExchangeFilter implements ExchangeFilterFunction {
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = Deadline.from(context);
+            if (deadline == null) {
+                return next.exchange(request);
+            }
+            long remainingMillis = deadline.remaining().toMillis();
+            if (remainingMillis <= 0) {
+                return Mono.error(new DeadlineExceededException(
+                        "Request deadline exceeded before calling " + request.url().getHost()));
+            }
+            return next.exchange(ClientRequest.from(request)
+                    .header(Deadline.HEADER, String.valueOf(remainingMillis))
+                    .build());
+        });
+    }
+}
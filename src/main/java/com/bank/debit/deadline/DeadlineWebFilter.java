@@ -0,0 +1,82 @@
+package com.bank.debit.deadline;
+
+import com.bank.debit.config.DeadlineProperties;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Starts the request deadline from the inbound {@link Deadline#HEADER} (capped at the
+ * configured maximum) or the endpoint default, and puts it in the Reactor context.
+ * A batch stream has no request-wide default deadline: each item gets its own in
+ * DebitService, unless {@code debit.deadline.endpoints.transaction_batch} is set.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DeadlineWebFilter implements WebFilter {
+
+    private static final String API_PREFIX = "/api/debit-cards";
+    private static final String BATCH_ENDPOINT = "transaction_batch";
+
+    private final DeadlineProperties properties;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!request.getPath().value().startsWith(API_PREFIX)) {
+            return chain.filter(exchange);
+        }
+        Duration timeout = timeout(request);
+        if (timeout == null) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange)
+                .contextWrite(context -> Deadline.put(context, Deadline.after(timeout)));
+    }
+
+    private Duration timeout(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst(Deadline.HEADER);
+        if (header != null) {
+            try {
+                Duration inbound = Duration.ofMillis(Long.parseLong(header.trim()));
+                return inbound.compareTo(properties.getMaxTimeout()) < 0 ? inbound : properties.getMaxTimeout();
+            } catch (NumberFormatException e) {
+                log.debug("Header {} inválido: {}", Deadline.HEADER, header);
+            }
+        }
+        String endpoint = endpoint(request);
+        if (BATCH_ENDPOINT.equals(endpoint) && !properties.getEndpoints().containsKey(endpoint)) {
+            return null;
+        }
+        return properties.forEndpoint(endpoint);
+    }
+
+    /**
+     * Endpoint names shared with the concurrency limits
+     */
+    private static String endpoint(ServerHttpRequest request) {
+        String path = request.getPath().value();
+        HttpMethod method = request.getMethod();
+        if (HttpMethod.POST.equals(method)) {
+            if (path.equals(API_PREFIX)) {
+                return "create";
+            }
+            if (path.equals(API_PREFIX + "/transaction")) {
+                return "transaction";
+            }
+            if (path.equals(API_PREFIX + "/transaction/batch")) {
+                return BATCH_ENDPOINT;
+            }
+        }
+        if (HttpMethod.PUT.equals(method) && path.equals(API_PREFIX + "/associate")) {
+            return "associate";
+        }
+        return "default";
+    }
+}
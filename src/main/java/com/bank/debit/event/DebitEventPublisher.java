@@ -0,0 +1,141 @@
+package com.bank.debit.event;
+
+import com.bank.debit.config.DebitEventProperties;
+import com.bank.debit.model.entity.OutboxEvent;
+import com.bank.debit.model.enums.DebitEventType;
+import com.bank.debit.model.enums.OutboxStatus;
+import com.bank.debit.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Records debit domain events in the Mongo outbox. The request path only waits on the
+ * outbox insert; OutboxRelay publishes to Kafka asynchronously.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DebitEventPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final DebitEventProperties properties;
+    private final ObjectProvider<TransactionalOperator> outboxTransactionalOperator;
+
+    /**
+     * Run a write and append the event it produces in the same Mongo transaction, so the
+     * state change and its event are stored together or not at all (requires a replica set)
+     * @param write the state change
+     * @param eventType the event type
+     * @param aggregateId the debit card id of the result, used as Kafka key
+     * @param data the event data of the result
+     * @return Mono of the write result once both are committed
+     */
+    public <T> Mono<T> publishWith(Mono<T> write, DebitEventType eventType,
+                                   Function<T, String> aggregateId, Function<T, Object> data) {
+        if (!properties.isEnabled()) {
+            return write;
+        }
+
+        TransactionalOperator transactionalOperator = outboxTransactionalOperator.getObject();
+        return write
+                .flatMap(result -> insert(eventType, aggregateId.apply(result), data.apply(result))
+                        .thenReturn(result))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Append an event for a change that has no local write to share a transaction with
+     * (e.g. a withdrawal already applied by the transaction service). The insert is retried;
+     * when it still fails the caller is not failed, since the change already happened, and
+     * the same event keeps being retried in the background.
+     * @param eventType the event type
+     * @param aggregateId the debit card id, used as Kafka key
+     * @param data the event data
+     * @return Mono that completes when the event is stored or handed to the background retry
+     */
+    public Mono<Void> publish(DebitEventType eventType, String aggregateId, Object data) {
+        if (!properties.isEnabled()) {
+            return Mono.empty();
+        }
+
+        // Built once so every retry inserts the same eventId
+        return Mono.fromCallable(() -> outboxEvent(eventType, aggregateId, data))
+                .flatMap(event -> store(event)
+                        .retryWhen(Retry.backoff(properties.getOutboxInsertRetries(),
+                                        properties.getOutboxInsertBackoff())
+                                .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                        .onErrorResume(error -> {
+                            log.error("No se pudo registrar el evento {} para {}, se reintentará en segundo plano: {}",
+                                    eventType, aggregateId, error.getMessage());
+                            recover(event);
+                            return Mono.empty();
+                        }))
+                .onErrorResume(JsonProcessingException.class, error -> {
+                    log.error("No se pudo serializar el evento {} para {}: {}",
+                            eventType, aggregateId, error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Keep retrying an event the request path gave up on, off the request
+     */
+    private void recover(OutboxEvent event) {
+        store(event)
+                .retryWhen(Retry.backoff(properties.getOutboxRecoveryRetries(), properties.getOutboxInsertBackoff())
+                        .maxBackoff(properties.getOutboxRecoveryMaxBackoff()))
+                .subscribe(
+                        stored -> log.info("Evento {} recuperado en outbox - Id: {}", event.getEventType(), event.getId()),
+                        error -> log.error("Evento {} perdido - Id: {}, Payload: {}: {}",
+                                event.getEventType(), event.getId(), event.getPayload(), error.getMessage()));
+    }
+
+    private Mono<OutboxEvent> store(OutboxEvent event) {
+        return Mono.defer(() -> outboxEventRepository.insert(event))
+                // An earlier attempt was stored even though its acknowledgement was lost
+                .onErrorResume(DuplicateKeyException.class, error -> Mono.just(event))
+                .doOnNext(stored -> log.debug("Evento {} registrado en outbox - Id: {}",
+                        stored.getEventType(), stored.getId()));
+    }
+
+    private Mono<OutboxEvent> insert(DebitEventType eventType, String aggregateId, Object data) {
+        return Mono.fromCallable(() -> outboxEvent(eventType, aggregateId, data))
+                .flatMap(outboxEventRepository::insert)
+                .doOnNext(event -> log.debug("Evento {} registrado en outbox - Id: {}", eventType, event.getId()));
+    }
+
+    private OutboxEvent outboxEvent(DebitEventType eventType, String aggregateId, Object data)
+            throws JsonProcessingException {
+        String eventId = UUID.randomUUID().toString();
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("eventId", eventId);
+        envelope.put("eventType", eventType);
+        envelope.put("aggregateId", aggregateId);
+        envelope.put("occurredAt", OffsetDateTime.now(ZoneOffset.UTC));
+        envelope.put("data", data);
+
+        return OutboxEvent.builder()
+                .id(eventId)
+                .eventType(eventType)
+                .aggregateId(aggregateId)
+                .payload(objectMapper.writeValueAsString(envelope))
+                .status(OutboxStatus.PENDING)
+                .build();
+    }
+}
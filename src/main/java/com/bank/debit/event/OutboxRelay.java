@@ -0,0 +1,176 @@
+package com.bank.debit.event;
+
+import com.bank.debit.config.DebitEventProperties;
+import com.bank.debit.model.entity.OutboxEvent;
+import com.bank.debit.model.enums.OutboxStatus;
+import com.bank.debit.repository.OutboxEventRepository;
+import com.mongodb.client.result.UpdateResult;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+import reactor.kafka.sender.SenderResult;
+
+/**
+ * Relays pending outbox events to Kafka in batches and marks them as published.
+ * Each replica claims the rows it relays under a lease (debit.events.relay-lease), so
+ * replicas do not publish the same rows concurrently; rows of a replica that dies
+ * mid-batch are claimed again once the lease expires.
+ * Delivery is at-least-once: consumers should deduplicate by eventId.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "debit.events.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final KafkaSender<String, String> debitEventSender;
+    private final DebitEventProperties properties;
+
+    private Disposable subscription;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        log.info("Iniciando relay de outbox hacia el tópico {}", properties.getTopic());
+
+        subscription = Flux.interval(properties.getPollInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> relayPending(), 1)
+                .subscribe();
+    }
+
+    /**
+     * Claim and publish one batch of pending events
+     * @return Mono of the number of events published
+     */
+    public Mono<Long> relayPending() {
+        String claimToken = UUID.randomUUID().toString();
+
+        return claim(claimToken)
+                .thenMany(Flux.defer(() -> outboxEventRepository.findByClaimTokenOrderByCreatedAtAsc(claimToken)))
+                .map(this::toSenderRecord)
+                .as(debitEventSender::send)
+                .collectList()
+                .flatMap(results -> {
+                    List<String> publishedIds = new ArrayList<>();
+                    List<String> failedIds = new ArrayList<>();
+                    for (SenderResult<String> result : results) {
+                        if (result.exception() != null) {
+                            log.warn("No se pudo publicar el evento {}: {}",
+                                    result.correlationMetadata(), result.exception().getMessage());
+                            failedIds.add(result.correlationMetadata());
+                        } else {
+                            publishedIds.add(result.correlationMetadata());
+                        }
+                    }
+                    return markPublished(publishedIds)
+                            .then(release(claimToken, failedIds))
+                            .thenReturn((long) publishedIds.size());
+                })
+                .onErrorResume(error -> {
+                    // Claimed rows are retried by any replica once their lease expires
+                    log.error("Error en relay de outbox: {}", error.getMessage());
+                    return Mono.just(0L);
+                });
+    }
+
+    /**
+     * Claim the oldest pending events, and in-flight ones whose lease expired, under a token
+     * unique to this batch. The conditional update is atomic per document, so a row is only
+     * ever claimed by one replica at a time.
+     */
+    private Mono<Long> claim(String claimToken) {
+        LocalDateTime now = LocalDateTime.now();
+        Criteria claimable = new Criteria().orOperator(
+                Criteria.where("status").is(OutboxStatus.PENDING),
+                Criteria.where("status").is(OutboxStatus.IN_FLIGHT).and("leaseUntil").lt(now));
+
+        Query candidates = Query.query(claimable)
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                .limit(properties.getRelayBatchSize());
+        candidates.fields().include("_id");
+
+        return mongoTemplate.find(candidates, OutboxEvent.class)
+                .map(OutboxEvent::getId)
+                .collectList()
+                .flatMap(ids -> {
+                    if (ids.isEmpty()) {
+                        return Mono.just(0L);
+                    }
+                    return mongoTemplate.updateMulti(
+                                    Query.query(new Criteria().andOperator(Criteria.where("_id").in(ids), claimable)),
+                                    new Update()
+                                            .set("status", OutboxStatus.IN_FLIGHT)
+                                            .set("claimToken", claimToken)
+                                            .set("leaseUntil", now.plus(properties.getRelayLease())),
+                                    OutboxEvent.class)
+                            .map(UpdateResult::getModifiedCount);
+                });
+    }
+
+    private Mono<Void> markPublished(List<String> publishedIds) {
+        if (publishedIds.isEmpty()) {
+            return Mono.empty();
+        }
+        return mongoTemplate.updateMulti(
+                        Query.query(Criteria.where("_id").in(publishedIds)),
+                        new Update()
+                                .set("status", OutboxStatus.PUBLISHED)
+                                .set("publishedAt", LocalDateTime.now())
+                                .unset("claimToken")
+                                .unset("leaseUntil"),
+                        OutboxEvent.class)
+                .doOnNext(result -> log.debug("{} eventos publicados", publishedIds.size()))
+                .then();
+    }
+
+    /**
+     * Hand failed events back to the pending pool without waiting for the lease to expire
+     */
+    private Mono<Void> release(String claimToken, List<String> failedIds) {
+        if (failedIds.isEmpty()) {
+            return Mono.empty();
+        }
+        return mongoTemplate.updateMulti(
+                        Query.query(Criteria.where("_id").in(failedIds).and("claimToken").is(claimToken)),
+                        new Update()
+                                .set("status", OutboxStatus.PENDING)
+                                .unset("claimToken")
+                                .unset("leaseUntil"),
+                        OutboxEvent.class)
+                .then();
+    }
+
+    private SenderRecord<String, String, String> toSenderRecord(OutboxEvent event) {
+        return SenderRecord.create(
+                new ProducerRecord<>(properties.getTopic(), event.getAggregateId(), event.getPayload()),
+                event.getId());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.bank.debit.exception;
+
+import java.time.Duration;
+import lombok.Getter;
+
+/**
+ * Request shed because its endpoint is at its concurrency limit
+ */
+@Getter
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ConcurrencyLimitExceededException(String endpoint, Duration retryAfter) {
+        super("Too many concurrent requests on " + endpoint + ", retry later");
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,11 @@
+package com.bank.debit.exception;
+
+/**
+ * The request deadline expired before the work could complete
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -7,6 +7,8 @@ import java.util.Map;
 
 import com.bank.debit.model.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.TransactionException;
@@ -86,6 +88,17 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
     }
 
+    /**
+     * Handle ValidationException
+     */
+    @ExceptionHandler(ValidationException.class)
+    public ResponseEntity<Map<String, Object>> handleValidationException(ValidationException ex) {
+        log.error("Business rule violations: {}", ex.getViolations());
+        ResponseEntity<Map<String, Object>> response = buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+        response.getBody().put("errors", ex.getViolations());
+        return response;
+    }
+
     /**
      * Handle BusinessRuleException
      */
@@ -95,6 +108,57 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    /**
+     * Handle IdempotencyConflictException
+     */
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleIdempotencyConflict(IdempotencyConflictException ex) {
+        log.warn("Idempotency conflict: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    /**
+     * Handle OptimisticLockingFailureException (retries exhausted under contention)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleOptimisticLocking(OptimisticLockingFailureException ex) {
+        log.warn("Concurrent modification: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    /**
+     * Handle ConcurrencyLimitExceededException (load shed before any downstream call)
+     */
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleConcurrencyLimitExceeded(ConcurrencyLimitExceededException ex) {
+        log.warn("Load shed: {}", ex.getMessage());
+        ResponseEntity<Map<String, Object>> response = buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(response.getBody());
+    }
+
+    /**
+     * Handle DeadlineExceededException
+     */
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleDeadlineExceeded(DeadlineExceededException ex) {
+        log.warn("Deadline exceeded: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.GATEWAY_TIMEOUT, ex.getMessage());
+    }
+
+    /**
+     * Handle WithdrawalOutcomeUnknownException: not retryable, the charge must be reconciled
+     */
+    @ExceptionHandler(WithdrawalOutcomeUnknownException.class)
+    public ResponseEntity<Map<String, Object>> handleWithdrawalOutcomeUnknown(WithdrawalOutcomeUnknownException ex) {
+        log.error("Withdrawal outcome unknown: {}", ex.getMessage());
+        ResponseEntity<Map<String, Object>> response =
+                buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage());
+        response.getBody().put("error", "Withdrawal Outcome Unknown");
+        return response;
+    }
+
     /**
      * Handle BusinessRuleException
      */
@@ -0,0 +1,12 @@
+package com.bank.debit.exception;
+
+/**
+ * Exception thrown when an idempotency key is in use by another request
+ * or was already used with a different request body
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
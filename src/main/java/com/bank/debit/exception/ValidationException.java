@@ -0,0 +1,21 @@
+package com.bank.debit.exception;
+
+import java.util.List;
+
+/**
+ * Exception thrown when one or more business rules are violated
+ * by a request validated in COLLECT_ALL mode
+ */
+public class ValidationException extends BusinessRuleException {
+
+    private final List<String> violations;
+
+    public ValidationException(List<String> violations) {
+        super(String.join("; ", violations));
+        this.violations = List.copyOf(violations);
+    }
+
+    public List<String> getViolations() {
+        return violations;
+    }
+}
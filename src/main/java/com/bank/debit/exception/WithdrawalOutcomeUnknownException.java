@@ -0,0 +1,13 @@
+package com.bank.debit.exception;
+
+/**
+ * The withdrawal request reached (or may have reached) the transaction service but its
+ * result did not arrive in time. The account may have been charged; the outcome has to be
+ * reconciled instead of retried.
+ */
+public class WithdrawalOutcomeUnknownException extends RuntimeException {
+
+    public WithdrawalOutcomeUnknownException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,53 @@
+package com.bank.debit.limit;
+
+import com.bank.debit.config.ConcurrencyLimitProperties;
+
+/**
+ * Gradient concurrency limit with AIMD backoff.
+ * Grows while short-term latency stays close to the long-term baseline, shrinks
+ * proportionally when it rises (requests are queueing downstream) and multiplicatively
+ * on timeouts or unavailable downstreams.
+ */
+class AdaptiveLimit {
+
+    private final ConcurrencyLimitProperties.Limit settings;
+    private double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    AdaptiveLimit(ConcurrencyLimitProperties.Limit settings) {
+        this.settings = settings;
+        this.limit = settings.getInitialLimit();
+    }
+
+    synchronized int current() {
+        return (int) limit;
+    }
+
+    synchronized void onSuccess(long rttNanos, int inFlight) {
+        shortRtt = average(shortRtt, rttNanos, settings.getShortWindow());
+        longRtt = average(longRtt, rttNanos, settings.getLongWindow());
+
+        // Latency measured with most of the limit unused says nothing about capacity
+        if (inFlight < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, settings.getRttTolerance() * longRtt / shortRtt));
+        double queueSize = Math.sqrt(limit);
+        double target = limit * gradient + queueSize;
+        update(limit * (1 - settings.getSmoothing()) + target * settings.getSmoothing());
+    }
+
+    synchronized void onDropped() {
+        update(limit * settings.getBackoffRatio());
+    }
+
+    private void update(double next) {
+        limit = Math.max(settings.getMinLimit(), Math.min(settings.getMaxLimit(), next));
+    }
+
+    private static double average(double current, long sample, int window) {
+        return current == 0 ? sample : current + (sample - current) / window;
+    }
+}
@@ -0,0 +1,168 @@
+package com.bank.debit.limit;
+
+import com.bank.debit.config.ConcurrencyLimitProperties;
+import com.bank.debit.exception.ConcurrencyLimitExceededException;
+import com.bank.debit.metrics.DebitMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Per-endpoint adaptive concurrency limits in front of the debit operations.
+ * Requests over the limit fail immediately with ConcurrencyLimitExceededException
+ * instead of queueing on the downstream clients until they time out.
+ */
+@Slf4j
+public class ConcurrencyLimiter {
+
+    public static final String LIMIT_GAUGE = "debit.concurrency.limit";
+    public static final String IN_FLIGHT_GAUGE = "debit.concurrency.inflight";
+    public static final String REJECTED_COUNTER = "debit.concurrency.rejected";
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Run the source within the concurrency limit of the endpoint
+     * @param endpoint create, associate, transaction or transaction_batch
+     * @param source the request processing, subscribed only if a permit is available
+     */
+    public <T> Mono<T> limit(String endpoint, Mono<T> source) {
+        if (!properties.isEnabled()) {
+            return source;
+        }
+        return Mono.defer(() -> {
+            Endpoint limited = endpoint(endpoint);
+            Permit permit = limited.tryAcquire();
+            if (permit == null) {
+                return Mono.error(limited.rejection());
+            }
+            return source
+                    .doOnSuccess(value -> permit.onSuccess())
+                    .doOnError(permit::onError)
+                    .doOnCancel(permit::release);
+        });
+    }
+
+    /**
+     * Streaming variant: the permit is held until the stream terminates
+     */
+    public <T> Flux<T> limit(String endpoint, Flux<T> source) {
+        if (!properties.isEnabled()) {
+            return source;
+        }
+        return Flux.defer(() -> {
+            Endpoint limited = endpoint(endpoint);
+            Permit permit = limited.tryAcquire();
+            if (permit == null) {
+                return Flux.error(limited.rejection());
+            }
+            return source
+                    .doOnComplete(permit::onSuccess)
+                    .doOnError(permit::onError)
+                    .doOnCancel(permit::release);
+        });
+    }
+
+    private Endpoint endpoint(String name) {
+        return endpoints.computeIfAbsent(name, key -> new Endpoint(key, properties.forEndpoint(key)));
+    }
+
+    private final class Endpoint {
+
+        private final String name;
+        private final AdaptiveLimit limit;
+        private final Duration retryAfter;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Counter rejected;
+
+        private Endpoint(String name, ConcurrencyLimitProperties.Limit settings) {
+            this.name = name;
+            this.limit = new AdaptiveLimit(settings);
+            this.retryAfter = settings.getRetryAfter();
+            Gauge.builder(LIMIT_GAUGE, limit, AdaptiveLimit::current)
+                    .description("Current adaptive concurrency limit")
+                    .tag("endpoint", name)
+                    .register(meterRegistry);
+            Gauge.builder(IN_FLIGHT_GAUGE, inFlight, AtomicInteger::get)
+                    .description("Requests currently holding a concurrency permit")
+                    .tag("endpoint", name)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder(REJECTED_COUNTER)
+                    .description("Requests shed by the concurrency limiter")
+                    .tag("endpoint", name)
+                    .register(meterRegistry);
+        }
+
+        private Permit tryAcquire() {
+            int current = inFlight.incrementAndGet();
+            if (current > limit.current()) {
+                inFlight.decrementAndGet();
+                rejected.increment();
+                log.debug("Concurrency limit {} alcanzado en {}", limit.current(), name);
+                return null;
+            }
+            return new Permit(this, current);
+        }
+
+        private ConcurrencyLimitExceededException rejection() {
+            return new ConcurrencyLimitExceededException(name, retryAfter);
+        }
+    }
+
+    private static final class Permit {
+
+        private final Endpoint endpoint;
+        private final int inFlightAtStart;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Endpoint endpoint, int inFlightAtStart) {
+            this.endpoint = endpoint;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        private void onSuccess() {
+            if (release()) {
+                endpoint.limit.onSuccess(System.nanoTime() - startNanos, inFlightAtStart);
+            }
+        }
+
+        /**
+         * Business rejections are normal samples; only overload signals shrink the limit
+         */
+        private void onError(Throwable error) {
+            if (!release()) {
+                return;
+            }
+            String outcome = DebitMetrics.outcome(error);
+            if ("timeout".equals(outcome) || "unavailable".equals(outcome) || "outcome_unknown".equals(outcome)) {
+                endpoint.limit.onDropped();
+            } else {
+                endpoint.limit.onSuccess(System.nanoTime() - startNanos, inFlightAtStart);
+            }
+        }
+
+        private boolean release() {
+            if (released.compareAndSet(false, true)) {
+                endpoint.inFlight.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.bank.debit.logging;
+
+import io.micrometer.context.ContextRegistry;
+import org.slf4j.MDC;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * MDC keys carried through the Reactor context. Each key is registered as a
+ * ThreadLocalAccessor, so with automatic context propagation the MDC is restored
+ * on whichever thread runs the next operator.
+ */
+public final class LogContext {
+
+    public static final String DEBIT_CARD_ID = "debitCardId";
+    public static final String TRANSACTION_ID = "transactionId";
+
+    static {
+        register(DEBIT_CARD_ID);
+        register(TRANSACTION_ID);
+    }
+
+    private LogContext() {
+    }
+
+    /**
+     * Put the debit card id in the MDC of every log line emitted by the source
+     * @param source the publisher to decorate
+     * @param debitCardId the card id, may be null
+     * @return the decorated publisher
+     */
+    public static <T> Mono<T> withDebitCard(Mono<T> source, String debitCardId) {
+        if (debitCardId == null) {
+            return source;
+        }
+        return source.contextWrite(Context.of(DEBIT_CARD_ID, debitCardId));
+    }
+
+    private static void register(String key) {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(
+                key,
+                () -> MDC.get(key),
+                value -> MDC.put(key, value),
+                () -> MDC.remove(key));
+    }
+}
@@ -0,0 +1,23 @@
+package com.bank.debit.logging;
+
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides which successful transactions get an INFO summary line. Failures are
+ * always logged; outcomes and latencies of every transaction are in the debit.* metrics.
+ */
+@Component
+public class TransactionLogSampler {
+
+    private final double sampleRate;
+
+    public TransactionLogSampler(@Value("${debit.logging.transaction-sample-rate:0.01}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public boolean sampled() {
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
@@ -2,6 +2,8 @@ package com.bank.debit.mapper;
 
 import com.bank.debit.model.CreateDebitCardRequest;
 import com.bank.debit.model.DebitCardResponse;
+import com.bank.debit.model.DebitCardSummary;
+import com.bank.debit.model.dto.DebitCardListItem;
 import com.bank.debit.model.entity.Debit;
 import org.springframework.stereotype.Component;
 
@@ -34,4 +36,16 @@ public class DebitMapper {
         return response;
     }
 
+    public DebitCardSummary toSummary(DebitCardListItem item) {
+        DebitCardSummary summary = new DebitCardSummary();
+        summary.setId(item.getId());
+        summary.setCustomerId(item.getCustomerId());
+        summary.setPrimaryAccountId(item.getPrimaryAccountId());
+        summary.setCardNumber(item.getCardNumber());
+        summary.setActive(item.isActive());
+        summary.setCreatedAt(item.getCreatedAt()==null?
+                null:item.getCreatedAt().atOffset(ZoneOffset.UTC));
+        return summary;
+    }
+
 }
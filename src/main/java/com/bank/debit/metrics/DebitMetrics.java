@@ -0,0 +1,136 @@
+package com.bank.debit.metrics;
+
+import com.bank.debit.exception.BusinessRuleException;
+import com.bank.debit.exception.DeadlineExceededException;
+import com.bank.debit.exception.DebitException;
+import com.bank.debit.exception.InsufficientFundsException;
+import com.bank.debit.exception.ServiceUnavailableException;
+import com.bank.debit.exception.WithdrawalOutcomeUnknownException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Micrometer instrumentation for the debit hot path.
+ * All tags are low cardinality (stage, client, operation, outcome); histogram and
+ * SLO buckets for debit.* timers are configured in MetricsConfig.
+ */
+@Component
+public class DebitMetrics {
+
+    public static final String STAGE_TIMER = "debit.transaction.stage";
+    public static final String CLIENT_TIMER = "debit.client.requests";
+    public static final String ACCOUNTS_TRIED = "debit.transaction.accounts.tried";
+    public static final String FALLBACK_DEPTH = "debit.transaction.fallback.depth";
+
+    private final MeterRegistry registry;
+    private final DistributionSummary fallbackDepth;
+    private final Map<String, DistributionSummary> accountsTried = new ConcurrentHashMap<>();
+
+    public DebitMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.fallbackDepth = DistributionSummary.builder(FALLBACK_DEPTH)
+                .description("Position of the associated account that covered the withdrawal (1 = first tried)")
+                .serviceLevelObjectives(1, 2, 3, 4, 5, 6)
+                .register(registry);
+    }
+
+    /**
+     * Time a stage of the transaction pipeline
+     * @param stage the stage name, e.g. card_load, withdrawal_attempt
+     * @param source the stage publisher
+     * @return the instrumented publisher
+     */
+    public <T> Mono<T> timeStage(String stage, Mono<T> source) {
+        return timed(STAGE_TIMER, source, "stage", stage);
+    }
+
+    /**
+     * Time a synchronous stage of the transaction pipeline
+     */
+    public <T> T timeStage(String stage, Supplier<T> supplier) {
+        return registry.timer(STAGE_TIMER, "stage", stage, "outcome", "success").record(supplier);
+    }
+
+    /**
+     * Time a downstream client call
+     * @param client account, customer or transaction
+     * @param operation the client operation
+     * @param source the call publisher
+     * @return the instrumented publisher
+     */
+    public <T> Mono<T> timeClient(String client, String operation, Mono<T> source) {
+        return timed(CLIENT_TIMER, source, "client", client, "operation", operation);
+    }
+
+    public void recordAccountsTried(int accounts, String outcome) {
+        accountsTried.computeIfAbsent(outcome, key -> DistributionSummary.builder(ACCOUNTS_TRIED)
+                        .description("Associated accounts tried per debit transaction")
+                        .tag("outcome", key)
+                        .serviceLevelObjectives(1, 2, 3, 4, 5)
+                        .register(registry))
+                .record(accounts);
+    }
+
+    /**
+     * Record the fallback depth, 0 when the first account tried covered the withdrawal.
+     * Stored 1-based because SLO boundaries must be positive.
+     */
+    public void recordFallbackDepth(int depth) {
+        fallbackDepth.record(depth + 1);
+    }
+
+    private <T> Mono<T> timed(String name, Mono<T> source, String... tags) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            // A cancel can still arrive after the terminal signal; only the first one is recorded
+            AtomicBoolean recorded = new AtomicBoolean();
+            return source
+                    .doOnSuccess(value -> stop(sample, recorded, name, "success", tags))
+                    .doOnError(error -> stop(sample, recorded, name, outcome(error), tags))
+                    .doOnCancel(() -> stop(sample, recorded, name, "cancelled", tags));
+        });
+    }
+
+    private void stop(Timer.Sample sample, AtomicBoolean recorded, String name, String outcome, String... tags) {
+        if (recorded.compareAndSet(false, true)) {
+            sample.stop(timer(name, outcome, tags));
+        }
+    }
+
+    private Timer timer(String name, String outcome, String... tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Bounded outcome tag for an error
+     */
+    public static String outcome(Throwable error) {
+        if (error instanceof InsufficientFundsException) {
+            return "insufficient_funds";
+        }
+        if (error instanceof BusinessRuleException || error instanceof DebitException) {
+            return "rejected";
+        }
+        if (error instanceof ServiceUnavailableException) {
+            return "unavailable";
+        }
+        if (error instanceof WithdrawalOutcomeUnknownException) {
+            return "outcome_unknown";
+        }
+        if (error instanceof TimeoutException || error instanceof DeadlineExceededException) {
+            return "timeout";
+        }
+        return "error";
+    }
+}
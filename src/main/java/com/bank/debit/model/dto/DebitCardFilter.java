@@ -0,0 +1,16 @@
+package com.bank.debit.model.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Optional filters of the debit card listing; null fields are not applied
+ */
+@Value
+@Builder
+public class DebitCardFilter {
+
+    Boolean active;
+    String customerId;
+    String accountId;
+}
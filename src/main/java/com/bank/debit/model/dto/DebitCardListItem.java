@@ -0,0 +1,22 @@
+package com.bank.debit.model.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Projection of debit_cards used by the listing; only these fields are read from Mongo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DebitCardListItem {
+
+    private String id;
+    private String customerId;
+    private String primaryAccountId;
+    private String cardNumber;
+    private boolean active;
+    private LocalDateTime createdAt;
+}
@@ -5,16 +5,28 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "debit_cards")
+@CompoundIndexes({
+    // insertIfAbsent upsert key, one card per customer and primary account; findByCustomerId (prefix)
+    @CompoundIndex(name = "customer_primary_account_uidx", def = "{'customerId': 1, 'primaryAccountId': 1}",
+            unique = true),
+    // findByCustomerIdAndActiveTrue, at most one active card per customer
+    @CompoundIndex(name = "customer_active_card_uidx", def = "{'customerId': 1, 'active': 1}",
+            unique = true, partialFilter = "{'active': true}")
+})
 public class Debit {
 
     @Id
@@ -24,6 +36,7 @@ public class Debit {
 
     private String primaryAccountId;
 
+    @Indexed(name = "associated_accounts_idx")
     private List<String> associatedAccounts;
 
     private String cardNumber;
@@ -35,4 +48,8 @@ public class Debit {
 
     private boolean active;
 
+    // Optimistic locking; null on documents written before it was introduced
+    @Version
+    private Long version;
+
 }
@@ -0,0 +1,50 @@
+package com.bank.debit.model.entity;
+
+import com.bank.debit.model.enums.IdempotencyStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored outcome of a debit transaction keyed by the client idempotency key.
+ * Expired by a TTL index on createdAt.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "debit_idempotency_keys")
+public class IdempotencyRecord {
+
+    @Id
+    private String key;
+
+    private String requestHash;
+
+    private IdempotencyStatus status;
+
+    private String transactionId;
+
+    private String debitCardId;
+
+    private String accountId;
+
+    private Double amount;
+
+    private String description;
+
+    private LocalDateTime timestamp;
+
+    private String transactionStatus;
+
+    private String errorMessage;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+}
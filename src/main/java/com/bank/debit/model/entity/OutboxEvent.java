@@ -0,0 +1,49 @@
+package com.bank.debit.model.entity;
+
+import com.bank.debit.model.enums.DebitEventType;
+import com.bank.debit.model.enums.OutboxStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain event waiting in the outbox to be relayed to Kafka
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "debit_outbox")
+@CompoundIndex(name = "status_created_idx", def = "{'status': 1, 'createdAt': 1}")
+public class OutboxEvent {
+
+    @Id
+    private String id;
+
+    private DebitEventType eventType;
+
+    private String aggregateId;
+
+    private String payload;
+
+    private OutboxStatus status;
+
+    // Set while IN_FLIGHT; cleared once the event is published or released
+    @Indexed(name = "claim_token_idx", sparse = true)
+    private String claimToken;
+
+    private LocalDateTime leaseUntil;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime publishedAt;
+
+}
@@ -0,0 +1,37 @@
+package com.bank.debit.model.entity;
+
+import com.bank.debit.model.enums.ProjectionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Local read model of the customer/account active flag, kept current from change events.
+ * The id is TYPE:refId.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "debit_status_projection")
+public class StatusProjection {
+
+    @Id
+    private String id;
+
+    private ProjectionType type;
+
+    private String refId;
+
+    private boolean active;
+
+    private LocalDateTime occurredAt;
+
+    private LocalDateTime updatedAt;
+
+}
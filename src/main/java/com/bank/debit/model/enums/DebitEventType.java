@@ -0,0 +1,21 @@
+package com.bank.debit.model.enums;
+
+/**
+ * Debit domain event type enumeration
+ */
+public enum DebitEventType {
+    /**
+     * A debit card was created
+     */
+    DEBIT_CARD_CREATED,
+
+    /**
+     * An account was associated to a debit card
+     */
+    ACCOUNT_ASSOCIATED,
+
+    /**
+     * A debit transaction completed
+     */
+    DEBIT_TRANSACTION_COMPLETED
+}
@@ -0,0 +1,22 @@
+package com.bank.debit.model.enums;
+
+/**
+ * Idempotency record status enumeration
+ */
+public enum IdempotencyStatus {
+    /**
+     * The request is being processed
+     */
+    IN_PROGRESS,
+
+    /**
+     * The request completed and its outcome is stored
+     */
+    COMPLETED,
+
+    /**
+     * The request failed after the withdrawal may have reached the transaction service
+     * (timeout, unavailable downstream, expired deadline); it must be reconciled, not retried
+     */
+    UNKNOWN
+}
@@ -0,0 +1,21 @@
+package com.bank.debit.model.enums;
+
+/**
+ * Outbox event status enumeration
+ */
+public enum OutboxStatus {
+    /**
+     * Waiting to be published to the broker
+     */
+    PENDING,
+
+    /**
+     * Claimed by a relay replica until its lease expires
+     */
+    IN_FLIGHT,
+
+    /**
+     * Published to the broker
+     */
+    PUBLISHED
+}
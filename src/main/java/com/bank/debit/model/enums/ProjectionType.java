@@ -0,0 +1,16 @@
+package com.bank.debit.model.enums;
+
+/**
+ * Status projection type enumeration
+ */
+public enum ProjectionType {
+    /**
+     * Customer active flag from Customer Service events
+     */
+    CUSTOMER,
+
+    /**
+     * Account active flag from Account Service events
+     */
+    ACCOUNT
+}
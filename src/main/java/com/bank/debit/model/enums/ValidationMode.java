@@ -0,0 +1,17 @@
+package com.bank.debit.model.enums;
+
+/**
+ * Validation mode enumeration
+ * Defines how DebitValidator reports violations of independent checks run concurrently
+ */
+public enum ValidationMode {
+    /**
+     * Fail with the first violation and cancel the checks still running.
+     */
+    FAIL_FAST,
+
+    /**
+     * Wait for every check and report all violations together.
+     */
+    COLLECT_ALL
+}
@@ -0,0 +1,19 @@
+package com.bank.debit.model.enums;
+
+/**
+ * Withdrawal strategy enumeration
+ * Defines how a debit transaction picks the associated account to withdraw from
+ */
+public enum WithdrawalStrategy {
+    /**
+     * Try each associated account in priority order until one has funds.
+     */
+    SEQUENTIAL,
+
+    /**
+     * Fetch every associated balance concurrently and withdraw once
+     * from the first account that covers the amount.
+     * Falls back to SEQUENTIAL when the snapshot turns out to be stale.
+     */
+    BALANCE_SNAPSHOT
+}
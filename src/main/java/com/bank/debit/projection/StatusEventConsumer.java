@@ -0,0 +1,141 @@
+package com.bank.debit.projection;
+
+import com.bank.debit.config.StatusProjectionProperties;
+import com.bank.debit.model.enums.ProjectionType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.util.retry.Retry;
+
+/**
+ * Consumes customer and account change events and applies them to the status projection.
+ * Expected payload: {"id": "...", "active": true, "occurredAt": "2025-12-31T10:30:00Z"}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "debit.projection.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class StatusEventConsumer {
+
+    private final KafkaReceiver<String, String> statusEventReceiver;
+    private final StatusProjectionService statusProjectionService;
+    private final StatusProjectionProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private Disposable subscription;
+    private Disposable lagCheck;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        log.info("Consumiendo eventos de estado desde {} y {}",
+                properties.getCustomerTopic(), properties.getAccountTopic());
+
+        subscription = statusEventReceiver.receive()
+                .concatMap(record -> handle(record)
+                        .doFinally(signal -> record.receiverOffset().acknowledge()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Consumidor de eventos de estado reiniciado: {}",
+                                signal.failure().getMessage())))
+                .subscribe();
+
+        lagCheck = Flux.interval(properties.getLagCheckInterval())
+                .concatMap(tick -> statusEventReceiver.doOnConsumer(this::lag)
+                        .onErrorResume(error -> {
+                            log.debug("No se pudo medir el lag del consumidor: {}", error.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe(lag -> {
+                    if (lag <= properties.getMaxLag()) {
+                        statusProjectionService.markCaughtUp();
+                    } else {
+                        log.info("Consumidor de eventos de estado con lag {}, se consultan los servicios remotos", lag);
+                    }
+                });
+    }
+
+    /**
+     * Records between the consumer position and the end of its partitions; runs on the consumer thread
+     */
+    private long lag(Consumer<String, String> consumer) {
+        Set<TopicPartition> assignment = consumer.assignment();
+        if (assignment.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+        Map<TopicPartition, Long> endOffsets = consumer.endOffsets(assignment);
+        long lag = 0;
+        for (TopicPartition partition : assignment) {
+            lag += Math.max(0, endOffsets.getOrDefault(partition, 0L) - consumer.position(partition));
+        }
+        return lag;
+    }
+
+    private Mono<Void> handle(ConsumerRecord<String, String> record) {
+        ProjectionType type = record.topic().equals(properties.getCustomerTopic())
+                ? ProjectionType.CUSTOMER
+                : ProjectionType.ACCOUNT;
+
+        return Mono.fromCallable(() -> objectMapper.readTree(record.value()))
+                .flatMap(event -> {
+                    String refId = textOrNull(event, "id", record.key());
+                    JsonNode active = event.get("active");
+                    if (refId == null || active == null || !active.isBoolean()) {
+                        log.warn("Evento de estado inválido en {}: {}", record.topic(), record.value());
+                        return Mono.empty();
+                    }
+                    return statusProjectionService.apply(type, refId, active.asBoolean(), occurredAt(event));
+                })
+                .onErrorResume(error -> {
+                    // A poison message must not stop the projection
+                    log.error("Error procesando evento de estado en {}: {}", record.topic(), error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private String textOrNull(JsonNode event, String field, String fallback) {
+        JsonNode value = event.get(field);
+        return value != null && value.isTextual() ? value.asText() : fallback;
+    }
+
+    private LocalDateTime occurredAt(JsonNode event) {
+        String value = textOrNull(event, "occurredAt", null);
+        if (value != null) {
+            try {
+                return OffsetDateTime.parse(value).withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
+            } catch (DateTimeParseException ex) {
+                log.debug("occurredAt inválido {}, se usa la hora actual", value);
+            }
+        }
+        return LocalDateTime.now(ZoneOffset.UTC);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (lagCheck != null) {
+            lagCheck.dispose();
+        }
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.bank.debit.projection;
+
+import com.bank.debit.cache.ReactiveLookupCache;
+import com.bank.debit.config.StatusProjectionProperties;
+import com.bank.debit.model.dto.AccountResponse;
+import com.bank.debit.model.dto.CustomerResponse;
+import com.bank.debit.model.entity.StatusProjection;
+import com.bank.debit.model.enums.ProjectionType;
+import com.bank.debit.repository.StatusProjectionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Customer and account active flags projected from change events, held in memory
+ * and in Mongo. Validators read it first and only call the remote services on a miss
+ * or when the projection cannot be trusted: entries are served while the event consumer
+ * is caught up, and otherwise only if written within debit.projection.max-age.
+ * Remote lookups are written back, so the projection fills up without change events.
+ */
+@Slf4j
+@Service
+public class StatusProjectionService {
+
+    private final StatusProjectionRepository statusProjectionRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final StatusProjectionProperties properties;
+    private final ReactiveLookupCache<CustomerResponse> customerLookupCache;
+    private final ReactiveLookupCache<AccountResponse> accountLookupCache;
+    private final Cache<String, StatusProjection> projections;
+    private volatile long caughtUpAtNanos;
+
+    public StatusProjectionService(StatusProjectionRepository statusProjectionRepository,
+                                   ReactiveMongoTemplate mongoTemplate,
+                                   StatusProjectionProperties properties,
+                                   ReactiveLookupCache<CustomerResponse> customerLookupCache,
+                                   ReactiveLookupCache<AccountResponse> accountLookupCache) {
+        this.statusProjectionRepository = statusProjectionRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.customerLookupCache = customerLookupCache;
+        this.accountLookupCache = accountLookupCache;
+        this.projections = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaxSize())
+                .build();
+    }
+
+    /**
+     * Active flag from the projection
+     * @param type customer or account
+     * @param refId the customer or account id
+     * @return Mono of the active flag, empty on a miss or when the entry is stale
+     */
+    public Mono<Boolean> findActive(ProjectionType type, String refId) {
+        if (!properties.isEnabled()) {
+            return Mono.empty();
+        }
+        String id = projectionId(type, refId);
+
+        StatusProjection cached = projections.getIfPresent(id);
+        if (cached != null) {
+            return isFresh(cached) ? Mono.just(cached.isActive()) : Mono.empty();
+        }
+
+        return statusProjectionRepository.findById(id)
+                .doOnNext(projection -> projections.put(id, projection))
+                .filter(this::isFresh)
+                .map(StatusProjection::isActive);
+    }
+
+    /**
+     * Apply a status change event. Events older than the stored one are ignored.
+     * @param type customer or account
+     * @param refId the customer or account id
+     * @param active the new active flag
+     * @param occurredAt when the change happened upstream
+     * @return Mono that completes when the projection is updated
+     */
+    public Mono<Void> apply(ProjectionType type, String refId, boolean active, LocalDateTime occurredAt) {
+        return upsert(type, refId, active, occurredAt, true);
+    }
+
+    /**
+     * Write back a flag read from the remote service, as observed now. A change event that
+     * happened later still wins. Fire-and-forget: a failed write only costs a future lookup.
+     */
+    public void remember(ProjectionType type, String refId, boolean active) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        upsert(type, refId, active, LocalDateTime.now(ZoneOffset.UTC), false)
+                .subscribe(null, error -> log.debug("No se pudo guardar la proyección {}:{}: {}",
+                        type, refId, error.getMessage()));
+    }
+
+    /**
+     * Called by the event consumer whenever its lag is within debit.projection.max-lag
+     */
+    public void markCaughtUp() {
+        caughtUpAtNanos = System.nanoTime();
+    }
+
+    private Mono<Void> upsert(ProjectionType type, String refId, boolean active, LocalDateTime occurredAt,
+                              boolean fromEvent) {
+        String id = projectionId(type, refId);
+        LocalDateTime now = LocalDateTime.now();
+
+        Query newerThanStored = Query.query(Criteria.where("_id").is(id)
+                .orOperator(Criteria.where("occurredAt").lt(occurredAt),
+                        Criteria.where("occurredAt").exists(false)));
+        Update update = new Update()
+                .set("type", type)
+                .set("refId", refId)
+                .set("active", active)
+                .set("occurredAt", occurredAt)
+                .set("updatedAt", now);
+
+        return mongoTemplate.upsert(newerThanStored, update, StatusProjection.class)
+                .doOnNext(result -> {
+                    projections.put(id, StatusProjection.builder()
+                            .id(id)
+                            .type(type)
+                            .refId(refId)
+                            .active(active)
+                            .occurredAt(occurredAt)
+                            .updatedAt(now)
+                            .build());
+                    if (fromEvent) {
+                        invalidateLookup(type, refId);
+                    }
+                    log.debug("Proyección {} actualizada - Active: {}", id, active);
+                })
+                // The stored entry is newer: the conditional upsert tried to insert a duplicate _id
+                .onErrorResume(DuplicateKeyException.class, error -> {
+                    log.debug("Evento desactualizado ignorado para {}", id);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void invalidateLookup(ProjectionType type, String refId) {
+        if (type == ProjectionType.CUSTOMER) {
+            customerLookupCache.invalidate(refId);
+        } else {
+            accountLookupCache.invalidate(refId);
+        }
+    }
+
+    /**
+     * While the consumer keeps up, an unchanged entry is current however old it is; without a
+     * live consumer only recently written entries are trusted.
+     */
+    private boolean isFresh(StatusProjection projection) {
+        return isConsumerCaughtUp()
+                || projection.getUpdatedAt() != null
+                && projection.getUpdatedAt().isAfter(LocalDateTime.now().minus(properties.getMaxAge()));
+    }
+
+    private boolean isConsumerCaughtUp() {
+        long caughtUpAt = caughtUpAtNanos;
+        return caughtUpAt != 0
+                && System.nanoTime() - caughtUpAt < properties.getLagCheckInterval().multipliedBy(2).toNanos();
+    }
+
+    private String projectionId(ProjectionType type, String refId) {
+        return type.name() + ":" + refId;
+    }
+}
@@ -1,13 +1,17 @@
 package com.bank.debit.repository;
 
 import com.bank.debit.model.entity.Debit;
+import java.util.Collection;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-public interface DebitRepository extends ReactiveMongoRepository<Debit, String> {
+public interface DebitRepository extends ReactiveMongoRepository<Debit, String>, DebitRepositoryCustom {
 
     Mono<Debit> findByCustomerIdAndPrimaryAccountId(String customerId, String primaryAccountId);
     Mono<Debit> findByCustomerIdAndActiveTrue(String customerId);
     Mono<Debit> findByCustomerId(String customerId);
+    Flux<Debit> findByAssociatedAccounts(String accountId);
+    Flux<Debit> findByCustomerIdInAndActiveTrue(Collection<String> customerIds);
 
 }
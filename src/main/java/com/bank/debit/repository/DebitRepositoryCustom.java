@@ -0,0 +1,49 @@
+package com.bank.debit.repository;
+
+import com.bank.debit.model.dto.DebitCardFilter;
+import com.bank.debit.model.dto.DebitCardListItem;
+import com.bank.debit.model.entity.Debit;
+import org.bson.types.ObjectId;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Atomic debit card updates through ReactiveMongoTemplate, merged into DebitRepository
+ */
+public interface DebitRepositoryCustom {
+
+    /**
+     * Add an account to an active card in one findAndModify ($addToSet), guarded by the
+     * version the caller read and bumping it.
+     * @param debitCardId the debit card id
+     * @param expectedVersion the version read by the caller, null for documents written before @Version
+     * @param accountId the account to associate
+     * @return Mono of the updated card, empty if the card is inactive or its version changed
+     */
+    Mono<Debit> addAssociatedAccount(String debitCardId, Long expectedVersion, String accountId);
+
+    /**
+     * Insert the card unless one already exists for its customer and primary account, in one
+     * upsert ($setOnInsert) backed by the unique (customerId, primaryAccountId) index.
+     * @param debit the new card, with its id already assigned
+     * @return Mono of the stored card: the new one, or the existing one (different id)
+     */
+    Mono<Debit> insertIfAbsent(Debit debit);
+
+    /**
+     * Keyset page of cards ordered by _id, reading only the DebitCardListItem fields
+     * @param filter the optional filters
+     * @param afterId the last id of the previous page, null for the first page
+     * @param limit the page size
+     * @return Flux streamed from the Mongo cursor
+     */
+    Flux<DebitCardListItem> findPage(DebitCardFilter filter, ObjectId afterId, int limit);
+
+    /**
+     * Remove an account from every card that references it, in one updateMany ($pull)
+     * @param accountId the closed account
+     * @return Mono of the number of cards modified
+     */
+    Mono<Long> removeAssociatedAccountFromAll(String accountId);
+
+}
@@ -0,0 +1,99 @@
+package com.bank.debit.repository;
+
+import com.bank.debit.model.dto.DebitCardFilter;
+import com.bank.debit.model.dto.DebitCardListItem;
+import com.bank.debit.model.entity.Debit;
+import com.mongodb.client.result.UpdateResult;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class DebitRepositoryCustomImpl implements DebitRepositoryCustom {
+
+    private static final int MAX_CURSOR_BATCH = 500;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Debit> addAssociatedAccount(String debitCardId, Long expectedVersion, String accountId) {
+        // version: null also matches documents without the field
+        Query query = Query.query(Criteria.where("_id").is(debitCardId)
+                .and("active").is(true)
+                .and("version").is(expectedVersion));
+
+        Update update = new Update()
+                .addToSet("associatedAccounts", accountId)
+                .set("updatedAt", LocalDateTime.now())
+                .inc("version", 1);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Debit.class);
+    }
+
+    @Override
+    public Mono<Debit> insertIfAbsent(Debit debit) {
+        Query query = Query.query(Criteria.where("customerId").is(debit.getCustomerId())
+                .and("primaryAccountId").is(debit.getPrimaryAccountId()));
+
+        if (debit.getVersion() == null) {
+            debit.setVersion(0L);
+        }
+        Document document = new Document();
+        mongoTemplate.getConverter().write(debit, document);
+        Update update = new Update();
+        document.forEach(update::setOnInsert);
+
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), Debit.class);
+    }
+
+    @Override
+    public Mono<Long> removeAssociatedAccountFromAll(String accountId) {
+        // Uses associated_accounts_idx (multikey) to find the cards
+        Query query = Query.query(Criteria.where("associatedAccounts").is(accountId));
+
+        Update update = new Update()
+                .pull("associatedAccounts", accountId)
+                .set("updatedAt", LocalDateTime.now())
+                .inc("version", 1);
+
+        return mongoTemplate.updateMulti(query, update, Debit.class)
+                .map(UpdateResult::getModifiedCount);
+    }
+
+    @Override
+    public Flux<DebitCardListItem> findPage(DebitCardFilter filter, ObjectId afterId, int limit) {
+        Query query = new Query()
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(limit)
+                .cursorBatchSize(Math.min(limit, MAX_CURSOR_BATCH));
+
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("_id").gt(afterId));
+        }
+        if (filter.getActive() != null) {
+            query.addCriteria(Criteria.where("active").is(filter.getActive()));
+        }
+        if (filter.getCustomerId() != null) {
+            query.addCriteria(Criteria.where("customerId").is(filter.getCustomerId()));
+        }
+        if (filter.getAccountId() != null) {
+            query.addCriteria(Criteria.where("associatedAccounts").is(filter.getAccountId()));
+        }
+
+        // The DTO projection limits the fields read to those of DebitCardListItem
+        return mongoTemplate.query(Debit.class)
+                .as(DebitCardListItem.class)
+                .matching(query)
+                .all();
+    }
+}
@@ -0,0 +1,8 @@
+package com.bank.debit.repository;
+
+import com.bank.debit.model.entity.IdempotencyRecord;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+public interface IdempotencyRecordRepository extends ReactiveMongoRepository<IdempotencyRecord, String> {
+
+}
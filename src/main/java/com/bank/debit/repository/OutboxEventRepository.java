@@ -0,0 +1,11 @@
+package com.bank.debit.repository;
+
+import com.bank.debit.model.entity.OutboxEvent;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface OutboxEventRepository extends ReactiveMongoRepository<OutboxEvent, String> {
+
+    Flux<OutboxEvent> findByClaimTokenOrderByCreatedAtAsc(String claimToken);
+
+}
@@ -0,0 +1,8 @@
+package com.bank.debit.repository;
+
+import com.bank.debit.model.entity.StatusProjection;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+public interface StatusProjectionRepository extends ReactiveMongoRepository<StatusProjection, String> {
+
+}
@@ -1,30 +1,60 @@
 package com.bank.debit.service;
 
+import com.bank.debit.cache.BalanceHintCache;
+import com.bank.debit.cache.DebitCardCache;
 import com.bank.debit.client.AccountClient;
 import com.bank.debit.client.CustomerClient;
 import com.bank.debit.client.TransactionClient;
+import com.bank.debit.deadline.Deadline;
+import com.bank.debit.event.DebitEventPublisher;
 import com.bank.debit.exception.BusinessRuleException;
+import com.bank.debit.exception.DeadlineExceededException;
 import com.bank.debit.exception.DebitException;
 import com.bank.debit.exception.InsufficientFundsException;
+import com.bank.debit.exception.ServiceUnavailableException;
+import com.bank.debit.exception.WithdrawalOutcomeUnknownException;
+import com.bank.debit.logging.LogContext;
+import com.bank.debit.logging.TransactionLogSampler;
 import com.bank.debit.mapper.DebitMapper;
+import com.bank.debit.metrics.DebitMetrics;
 import com.bank.debit.model.*;
+import com.bank.debit.model.dto.AccountResponse;
+import com.bank.debit.model.dto.DebitCardFilter;
 import com.bank.debit.model.dto.TransactionResponse;
 import com.bank.debit.model.entity.Debit;
+import com.bank.debit.model.enums.DebitEventType;
+import com.bank.debit.model.enums.ValidationMode;
+import com.bank.debit.model.enums.WithdrawalStrategy;
 import com.bank.debit.repository.DebitRepository;
 import com.bank.debit.validator.DebitValidator;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.TransactionException;
+import reactor.core.publisher.Flux;
+import reactor.core.observability.micrometer.Micrometer;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.retry.Retry;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Service
@@ -37,29 +67,92 @@ public class DebitService {
     private final DebitValidator debitValidator;
     private final DebitMapper debitMapper;
     private final TransactionClient transactionClient;
+    private final BalanceHintCache balanceHintCache;
+    private final DebitCardCache debitCardCache;
+    private final IdempotencyService idempotencyService;
+    private final DebitEventPublisher debitEventPublisher;
+    private final DebitMetrics debitMetrics;
+    private final ObservationRegistry observationRegistry;
+    private final TransactionLogSampler transactionLogSampler;
+
+    @Value("${debit.withdrawal.strategy:SEQUENTIAL}")
+    private WithdrawalStrategy withdrawalStrategy;
+
+    @Value("${debit.withdrawal.balance-lookup-concurrency:4}")
+    private int balanceLookupConcurrency;
+
+    @Value("${debit.batch.concurrency:16}")
+    private int batchConcurrency;
+
+    @Value("${debit.batch.max-size:5000}")
+    private int batchMaxSize;
+
+    @Value("${debit.listing.default-page-size:100}")
+    private int listingDefaultPageSize;
+
+    @Value("${debit.listing.max-page-size:1000}")
+    private int listingMaxPageSize;
+
+    @Value("${debit.lookup.max-keys:500}")
+    private int lookupMaxKeys;
+
+    @Value("${debit.validation.mode:FAIL_FAST}")
+    private ValidationMode validationMode;
+
+    @Value("${debit.optimistic-lock.max-retries:3}")
+    private int optimisticLockMaxRetries;
+
+    @Value("${debit.deadline.enabled:true}")
+    private boolean deadlineEnabled;
+
+    @Value("${debit.deadline.batch-item-timeout:PT5S}")
+    private Duration batchItemTimeout;
 
     public Mono<DebitCardResponse> createDebitCard(CreateDebitCardRequest request) {
 
         log.info("Iniciando creación de tarjeta de débito - CustomerId: {}, AccountId: {}",
                 request.getCustomerId(), request.getPrimaryAccountId());
 
-        return debitValidator.validateCustomerIsActive(request.getCustomerId())
-                .then(debitValidator.validateAccountIsActive(request.getPrimaryAccountId()))
-                .then(debitValidator.validateDebitCardNotExists(request.getCustomerId(), request.getPrimaryAccountId()))
-                .then(createAndSaveDebitCard(request))
+        // Remote validations run concurrently; uniqueness is enforced by the upsert itself
+        return debitValidator.validateAll(validationMode, List.of(
+                        debitValidator.validateCustomerIsActive(request.getCustomerId()),
+                        debitValidator.validateAccountIsActive(request.getPrimaryAccountId())))
+                .then(Mono.defer(() -> {
+                    String cardId = new ObjectId().toHexString();
+                    return debitEventPublisher
+                            .publishWith(createAndSaveDebitCard(cardId, request),
+                                    DebitEventType.DEBIT_CARD_CREATED, DebitCardResponse::getId, response -> response)
+                            // The cache saw the insert before the transaction outcome was known
+                            .doOnError(error -> debitCardCache.invalidate(cardId));
+                }))
                 .doOnSuccess(response -> log.info("Created debit card - CardId: {}", response.getId()))
                 .doOnError(error -> log.error("Error to try create debit card: {}", error.getMessage()));
     }
 
-    private Mono<DebitCardResponse> createAndSaveDebitCard(CreateDebitCardRequest request) {
+    private Mono<DebitCardResponse> createAndSaveDebitCard(String cardId, CreateDebitCardRequest request) {
         log.debug("Create new debit card");
 
         return Mono.fromCallable(() -> debitMapper.toEntity(request))
                 .flatMap(entity -> {
+                    entity.setId(cardId);
                     entity.setAssociatedAccounts(new ArrayList<>());
                     entity.getAssociatedAccounts().add(request.getPrimaryAccountId());
                     entity.setCardNumber(generateCardNumber());
-                    return debitRepository.save(entity);
+                    return debitCardCache.insertIfAbsent(entity)
+                            .flatMap(stored -> {
+                                if (!entity.getId().equals(stored.getId())) {
+                                    log.warn("Ya existe una tarjeta de débito para customer: {} y account: {}",
+                                            request.getCustomerId(), request.getPrimaryAccountId());
+                                    return Mono.error(new BusinessRuleException(
+                                            "Customer already has a debit card for this account"));
+                                }
+                                return Mono.just(stored);
+                            });
+                })
+                .onErrorMap(DuplicateKeyException.class, error -> {
+                    // Unique partial index on (customerId, active=true): another active card exists
+                    log.warn("Tarjeta activa duplicada para customer: {}", request.getCustomerId());
+                    return new BusinessRuleException("Customer already has an active debit card");
                 })
                 .map(debitMapper::toResponse);
     }
@@ -81,10 +174,22 @@ public class DebitService {
         log.info("Associate new account to debit card - CustomerId: {}, AccountId: {}",
                 request.getCustomerId(), request.getAccountId());
 
-        return getActiveDebitCard(request.getCustomerId())
-                .flatMap(debitCard -> debitValidator.validateAndAssociateAccount(debitCard, request.getAccountId()))
-                .flatMap(debitRepository::save)
-                .map(debitMapper::toResponse)
+        // Re-read, re-validate and re-apply when another writer bumped the card version
+        return Mono.defer(() -> getActiveDebitCard(request.getCustomerId())
+                        .flatMap(debitCard -> debitValidator
+                                .validateAccountCanBeAssociated(debitCard, request.getAccountId())
+                                .then(debitEventPublisher
+                                        .publishWith(debitCardCache.addAssociatedAccount(debitCard, request.getAccountId())
+                                                        .map(debitMapper::toResponse),
+                                                DebitEventType.ACCOUNT_ASSOCIATED, DebitCardResponse::getId,
+                                                response -> Map.of("accountId", request.getAccountId(), "card", response))
+                                        .doOnError(error -> debitCardCache.invalidate(debitCard.getId())))))
+                .retryWhen(Retry.backoff(optimisticLockMaxRetries, Duration.ofMillis(10))
+                        .jitter(0.5)
+                        .filter(OptimisticLockingFailureException.class::isInstance)
+                        .doBeforeRetry(signal -> log.debug("Conflicto de versión al asociar cuenta, reintento {}",
+                                signal.totalRetries() + 1))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
                 .doOnSuccess(response -> log.info("Account associated - CardId: {}, AccountId: {}",
                         response.getId(), request.getAccountId()))
                 .doOnError(error -> log.error("Error to associate account: {}", error.getMessage()));
@@ -100,17 +205,52 @@ public class DebitService {
     }
 
     // Transaction
+    /**
+     * Process a debit transaction at most once per idempotency key
+     * @param request the transaction request
+     * @param idempotencyKey the client idempotency key, may be null
+     * @return Mono of the original or replayed response
+     */
+    public Mono<DebitTransactionResponse> processTransaction(DebitTransactionRequest request, String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, request, () -> processTransaction(request));
+    }
+
     public Mono<DebitTransactionResponse> processTransaction(DebitTransactionRequest request) {
 
-        log.info("Iniciando transacción - DebitCardId: {}, Amount: {}",
+        log.debug("Iniciando transacción - DebitCardId: {}, Amount: {}",
                 request.getDebitCardId(), request.getAmount());
 
-        return validateTransactionAmount(request.getAmount())
+        Mono<DebitTransactionResponse> transaction = validateTransactionAmount(request.getAmount())
                 .then(getActiveDebitCardById(request.getDebitCardId()))
                 .flatMap(debitCard -> processWithdrawalWithFallback(debitCard, request))
-                .doOnSuccess(response -> log.info("Transacción completada exitosamente - TransactionId: {}",
-                        response.getTransactionId()))
+                .flatMap(this::publishTransactionCompleted)
+                .doOnSuccess(this::logTransactionCompleted)
                 .doOnError(error -> log.error("Error al procesar transacción: {}", error.getMessage()));
+
+        return LogContext.withDebitCard(transaction, request.getDebitCardId());
+    }
+
+    /**
+     * One sampled INFO line per successful transaction; the step-by-step trail is at DEBUG
+     */
+    private void logTransactionCompleted(DebitTransactionResponse response) {
+        if (!transactionLogSampler.sampled()) {
+            return;
+        }
+        try (MDC.MDCCloseable ignored = MDC.putCloseable(LogContext.TRANSACTION_ID, response.getTransactionId())) {
+            log.info("Transacción completada - AccountId: {}, Amount: {}",
+                    response.getAccountId(), response.getAmount());
+        }
+    }
+
+    /**
+     * The withdrawal already went through; a failed outbox insert is retried by the publisher
+     * and never turns the completed debit into an error
+     */
+    private Mono<DebitTransactionResponse> publishTransactionCompleted(DebitTransactionResponse response) {
+        return debitEventPublisher
+                .publish(DebitEventType.DEBIT_TRANSACTION_COMPLETED, response.getDebitCardId(), response)
+                .thenReturn(response);
     }
 
     private Mono<Void> validateTransactionAmount(Double amount) {
@@ -123,29 +263,252 @@ public class DebitService {
     private Mono<Debit> getActiveDebitCardById(String debitCardId) {
         log.debug("Buscando tarjeta de débito activa - CardId: {}", debitCardId);
 
-        return debitRepository.findById(debitCardId)
+        return debitMetrics.timeStage("card_load", debitCardCache.findById(debitCardId))
                 .switchIfEmpty(Mono.error(new DebitException("Debit card not found: " + debitCardId)))
-                .flatMap(debitCard -> {
-                    if (!debitCard.isActive()) {
-                        return Mono.error(new BusinessRuleException("Debit card is not active: " + debitCardId));
+                .flatMap(this::requireActive);
+    }
+
+    private Mono<Debit> requireActive(Debit debitCard) {
+        if (!debitCard.isActive()) {
+            return Mono.error(new BusinessRuleException("Debit card is not active: " + debitCard.getId()));
+        }
+        log.debug("Tarjeta de débito activa encontrada - CardId: {}", debitCard.getId());
+        return Mono.just(debitCard);
+    }
+
+    // Batch
+    /**
+     * Process a batch of debit transactions. All referenced cards are loaded with one query,
+     * withdrawals run with bounded concurrency keeping the order per card, and results are
+     * emitted per item as they complete.
+     * @param requests the batch items
+     * @return Flux of per-item results
+     */
+    public Flux<DebitBatchTransactionResult> processTransactionBatch(Flux<DebitTransactionRequest> requests) {
+        return requests
+                .index()
+                .collectList()
+                .flatMapMany(items -> {
+                    if (items.size() > batchMaxSize) {
+                        return Flux.error(new BusinessRuleException(
+                                "Batch size " + items.size() + " exceeds the maximum of " + batchMaxSize));
                     }
-                    log.debug("Tarjeta de débito activa encontrada - CardId: {}", debitCardId);
-                    return Mono.just(debitCard);
+                    log.info("Iniciando lote de {} transacciones", items.size());
+
+                    Map<String, List<Tuple2<Long, DebitTransactionRequest>>> itemsByCard = new LinkedHashMap<>();
+                    items.forEach(item -> itemsByCard
+                            .computeIfAbsent(Objects.toString(item.getT2().getDebitCardId(), ""),
+                                    cardId -> new ArrayList<>())
+                            .add(item));
+
+                    return debitCardCache.findAllById(itemsByCard.keySet())
+                            .collectMap(Debit::getId)
+                            .flatMapMany(cards -> Flux.fromIterable(itemsByCard.values())
+                                    .flatMap(cardItems -> Flux.fromIterable(cardItems)
+                                                    .concatMap(item -> processBatchItem(
+                                                            item.getT1(), item.getT2(), cards)),
+                                            batchConcurrency));
+                });
+    }
+
+    private Mono<DebitBatchTransactionResult> processBatchItem(
+            long index, DebitTransactionRequest request, Map<String, Debit> cards) {
+
+        Mono<DebitBatchTransactionResult> item = validateTransactionAmount(request.getAmount())
+                .then(Mono.justOrEmpty(cards.get(request.getDebitCardId())))
+                .switchIfEmpty(Mono.error(new DebitException("Debit card not found: " + request.getDebitCardId())))
+                .flatMap(this::requireActive)
+                .flatMap(debitCard -> processWithdrawalWithFallback(debitCard, request))
+                .flatMap(this::publishTransactionCompleted)
+                .doOnNext(this::logTransactionCompleted)
+                .map(transaction -> new DebitBatchTransactionResult()
+                        .index(index)
+                        .debitCardId(request.getDebitCardId())
+                        .status("COMPLETED")
+                        .transaction(transaction))
+                .onErrorResume(error -> {
+                    log.warn("Ítem {} del lote fallido - DebitCardId: {}: {}",
+                            index, request.getDebitCardId(), error.getMessage());
+                    return Mono.just(new DebitBatchTransactionResult()
+                            .index(index)
+                            .debitCardId(request.getDebitCardId())
+                            .status("FAILED")
+                            .errorCode(batchErrorCode(error))
+                            .errorMessage(error.getMessage()));
                 });
+
+        // Each item's deadline starts when the item does, not when the batch was received
+        Mono<DebitBatchTransactionResult> bounded = deadlineEnabled && batchItemTimeout != null
+                ? item.contextWrite(context -> Deadline.withTimeout(context, batchItemTimeout))
+                : item;
+        return LogContext.withDebitCard(bounded, request.getDebitCardId());
+    }
+
+    private int batchErrorCode(Throwable error) {
+        if (error instanceof InsufficientFundsException) {
+            return 422;
+        }
+        if (error instanceof BusinessRuleException || error instanceof DebitException) {
+            return 400;
+        }
+        if (error instanceof ServiceUnavailableException) {
+            return 503;
+        }
+        if (error instanceof DeadlineExceededException) {
+            return 504;
+        }
+        if (error instanceof WithdrawalOutcomeUnknownException) {
+            return 500;
+        }
+        return 500;
     }
 
     private Mono<DebitTransactionResponse> processWithdrawalWithFallback(
             Debit debitCard, DebitTransactionRequest request) {
 
-        log.info("Procesando retiro con {} cuentas asociadas", debitCard.getAssociatedAccounts().size());
+        log.debug("Procesando retiro con {} cuentas asociadas - Estrategia: {}",
+                debitCard.getAssociatedAccounts().size(), withdrawalStrategy);
+
+        BigDecimal amount = BigDecimal.valueOf(request.getAmount());
+        List<String> accounts = balanceHintCache.prioritize(debitCard.getAssociatedAccounts(), amount);
+        AtomicInteger attempts = new AtomicInteger();
+
+        Mono<DebitTransactionResponse> withdrawal;
+        if (accounts.isEmpty()) {
+            log.error("Todas las {} cuentas asociadas tienen saldo insuficiente conocido",
+                    debitCard.getAssociatedAccounts().size());
+            withdrawal = Mono.error(new InsufficientFundsException(
+                    String.format("Insufficient funds in all %d associated accounts",
+                            debitCard.getAssociatedAccounts().size())));
+        } else if (withdrawalStrategy == WithdrawalStrategy.BALANCE_SNAPSHOT && accounts.size() > 1) {
+            withdrawal = withdrawWithBalanceSnapshot(
+                    accounts, amount, request.getDescription(), debitCard.getId(), attempts);
+        } else {
+            withdrawal = tryWithdrawalOnAccounts(
+                    accounts,
+                    0,
+                    amount,
+                    request.getDescription(),
+                    debitCard.getId(),
+                    attempts
+            );
+        }
 
-        return tryWithdrawalOnAccounts(
-                debitCard.getAssociatedAccounts(),
-                0,
-                BigDecimal.valueOf(request.getAmount()),
-                request.getDescription(),
-                debitCard.getId()
-        );
+        return withdrawal
+                .doOnSuccess(response -> {
+                    debitMetrics.recordAccountsTried(attempts.get(), "success");
+                    // Depth across every account tried, whichever path covered the withdrawal
+                    debitMetrics.recordFallbackDepth(attempts.get() - 1);
+                })
+                .doOnError(error -> debitMetrics.recordAccountsTried(attempts.get(), DebitMetrics.outcome(error)));
+    }
+
+    /**
+     * Withdrawal on a single account, counted and timed as one attempt and traced as its own span
+     */
+    private Mono<TransactionResponse> attemptWithdrawal(
+            String accountId, BigDecimal amount, String description, AtomicInteger attempts) {
+        return Mono.defer(() -> {
+                    attempts.incrementAndGet();
+                    return debitMetrics.timeStage("withdrawal_attempt",
+                            transactionClient.processWithdrawal(accountId, amount, description));
+                })
+                // An expired deadline stops the fallback walk before the next POST; a POST already
+                // sent is never cancelled, its outcome is reported as unknown instead
+                .as(attempt -> Deadline.boundedWait(attempt, () -> new WithdrawalOutcomeUnknownException(
+                        "Withdrawal on account " + accountId + " did not complete before the request deadline")))
+                .name("debit.withdrawal.attempt")
+                .tag("strategy", withdrawalStrategy.name().toLowerCase())
+                .tap(Micrometer.observation(observationRegistry));
+    }
+
+    /**
+     * Fetch all associated balances concurrently and issue a single withdrawal on the
+     * first account (in priority order) that covers the amount.
+     * Falls back to the sequential walk only when the snapshot turns out to be stale.
+     */
+    private Mono<DebitTransactionResponse> withdrawWithBalanceSnapshot(
+            List<String> accounts,
+            BigDecimal amount,
+            String description,
+            String debitCardId,
+            AtomicInteger attempts) {
+
+        Mono<List<AccountBalance>> balances = Flux.fromIterable(accounts)
+                .flatMapSequential(this::fetchBalance, balanceLookupConcurrency)
+                .collectList();
+
+        return debitMetrics.timeStage("balance_snapshot", balances)
+                .flatMap(snapshot -> {
+                    String selectedAccountId = snapshot.stream()
+                            .filter(balance -> balance.covers(amount))
+                            .map(AccountBalance::accountId)
+                            .findFirst()
+                            .orElse(null);
+
+                    if (selectedAccountId == null) {
+                        List<String> unknownAccounts = snapshot.stream()
+                                .filter(AccountBalance::isUnknown)
+                                .map(AccountBalance::accountId)
+                                .toList();
+                        if (unknownAccounts.isEmpty()) {
+                            log.error("Ninguna de las {} cuentas asociadas cubre el monto {}",
+                                    accounts.size(), amount);
+                            return Mono.error(new InsufficientFundsException(
+                                    String.format("Insufficient funds in all %d associated accounts",
+                                            accounts.size())));
+                        }
+                        log.warn("Snapshot incompleto, se intentará secuencialmente en {} cuentas sin saldo conocido",
+                                unknownAccounts.size());
+                        return tryWithdrawalOnAccounts(
+                                unknownAccounts, 0, amount, description, debitCardId, attempts);
+                    }
+
+                    log.debug("Snapshot de saldos seleccionó la cuenta {}", selectedAccountId);
+
+                    return attemptWithdrawal(selectedAccountId, amount, description, attempts)
+                            .doOnNext(transactionResponse -> balanceHintCache.recordBalance(
+                                    selectedAccountId, transactionResponse.getBalanceAfter()))
+                            .map(transactionResponse -> mapToDebitTransactionResponse(
+                                    transactionResponse, debitCardId, selectedAccountId, amount, description))
+                            .onErrorResume(InsufficientFundsException.class, error -> {
+                                balanceHintCache.recordInsufficientFunds(selectedAccountId, amount);
+                                log.warn("Snapshot desactualizado para cuenta {}, se recurre al recorrido secuencial",
+                                        selectedAccountId);
+                                List<String> remainingAccounts = accounts.stream()
+                                        .filter(accountId -> !accountId.equals(selectedAccountId))
+                                        .toList();
+                                return tryWithdrawalOnAccounts(
+                                        remainingAccounts, 0, amount, description, debitCardId, attempts);
+                            });
+                });
+    }
+
+    private Mono<AccountBalance> fetchBalance(String accountId) {
+        return accountClient.getAccount(accountId)
+                .doOnNext(account -> balanceHintCache.recordBalance(accountId, account.getBalance()))
+                .map(account -> new AccountBalance(accountId, account))
+                .defaultIfEmpty(new AccountBalance(accountId, null))
+                .onErrorResume(error -> {
+                    log.warn("No se pudo obtener el saldo de la cuenta {}: {}", accountId, error.getMessage());
+                    return Mono.just(new AccountBalance(accountId, null));
+                });
+    }
+
+    /**
+     * Balance snapshot of an associated account. A null account means the balance is unknown.
+     */
+    private record AccountBalance(String accountId, AccountResponse account) {
+
+        boolean isUnknown() {
+            return account == null || account.getBalance() == null;
+        }
+
+        boolean covers(BigDecimal amount) {
+            return !isUnknown()
+                    && !Boolean.FALSE.equals(account.getActive())
+                    && account.getBalance().compareTo(amount) >= 0;
+        }
     }
 
     private Mono<DebitTransactionResponse> tryWithdrawalOnAccounts(
@@ -153,7 +516,8 @@ public class DebitService {
             int index,
             BigDecimal amount,
             String description,
-            String debitCardId) {
+            String debitCardId,
+            AtomicInteger attempts) {
 
         if (index >= accounts.size()) {
             log.error("Fondos insuficientes en todas las {} cuentas asociadas", accounts.size());
@@ -162,22 +526,23 @@ public class DebitService {
         }
 
         String currentAccountId = accounts.get(index);
-        log.info("Intentando retiro en cuenta {} ({}/{})", currentAccountId, index + 1, accounts.size());
+        log.debug("Intentando retiro en cuenta {} ({}/{})", currentAccountId, index + 1, accounts.size());
 
-        return transactionClient.processWithdrawal(currentAccountId, amount, description)
+        return attemptWithdrawal(currentAccountId, amount, description, attempts)
                 .map(transactionResponse -> {
-                    log.info("Retiro exitoso en cuenta {} - TransactionId: {} - Status: {}",
+                    log.debug("Retiro exitoso en cuenta {} - TransactionId: {} - Status: {}",
                             currentAccountId, transactionResponse.getId(), transactionResponse.getStatus());
+                    balanceHintCache.recordBalance(currentAccountId, transactionResponse.getBalanceAfter());
                     return mapToDebitTransactionResponse(
                             transactionResponse, debitCardId, currentAccountId, amount, description);
                 })
                 .onErrorResume(InsufficientFundsException.class, error -> {
-                    log.warn("Fondos insuficientes en cuenta {} ({}/{}): {}",
+                    log.debug("Fondos insuficientes en cuenta {} ({}/{}), se intenta con la siguiente: {}",
                             currentAccountId, index + 1, accounts.size(), error.getMessage());
-                    log.info("Intentando con la siguiente cuenta asociada...");
+                    balanceHintCache.recordInsufficientFunds(currentAccountId, amount);
 
                     // Intenta con la siguiente cuenta
-                    return tryWithdrawalOnAccounts(accounts, index + 1, amount, description, debitCardId);
+                    return tryWithdrawalOnAccounts(accounts, index + 1, amount, description, debitCardId, attempts);
                 })
                 .onErrorResume(error -> {
                     // Cualquier otro error se propaga inmediatamente
@@ -206,22 +571,23 @@ public class DebitService {
             BigDecimal amount,
             String description) {
 
-        DebitTransactionResponse response = new DebitTransactionResponse();
-        response.setTransactionId(transactionResponse.getId());
-        response.setDebitCardId(debitCardId);
-        response.setAccountId(accountId);
-        response.setAmount(amount.doubleValue());
-        response.setDescription(description);
-        response.setTimestamp(transactionResponse.getCreatedAt().atOffset(ZoneOffset.UTC));
-        response.setStatus(transactionResponse.getStatus().toString());
-
-        return response;
+        return debitMetrics.timeStage("mapping", () -> {
+            DebitTransactionResponse response = new DebitTransactionResponse();
+            response.setTransactionId(transactionResponse.getId());
+            response.setDebitCardId(debitCardId);
+            response.setAccountId(accountId);
+            response.setAmount(amount.doubleValue());
+            response.setDescription(description);
+            response.setTimestamp(transactionResponse.getCreatedAt().atOffset(ZoneOffset.UTC));
+            response.setStatus(transactionResponse.getStatus().toString());
+            return response;
+        });
     }
 
     public Mono<DebitCardResponse> getDebitCardById(String id) {
         log.info("Consultando tarjeta de débito por ID: {}", id);
 
-        return debitRepository.findById(id)
+        return debitCardCache.findById(id)
                 .switchIfEmpty(Mono.error(new DebitException("Debit card not found: " + id)))
                 .map(debitMapper::toResponse)
                 .doOnSuccess(response -> log.info("Tarjeta de débito encontrada - CardId: {}, CustomerId: {}",
@@ -230,10 +596,114 @@ public class DebitService {
                         id, error.getMessage()));
     }
 
+    /**
+     * Stream a keyset page of debit cards
+     * @param filter the optional filters
+     * @param after the id of the last card of the previous page, may be null
+     * @param limit the page size, may be null
+     * @return Flux of card summaries ordered by id
+     */
+    public Flux<DebitCardSummary> listDebitCards(DebitCardFilter filter, String after, Integer limit) {
+        int pageSize = limit == null ? listingDefaultPageSize : limit;
+        if (pageSize < 1 || pageSize > listingMaxPageSize) {
+            return Flux.error(new BusinessRuleException(
+                    "limit must be between 1 and " + listingMaxPageSize));
+        }
+        if (after != null && !ObjectId.isValid(after)) {
+            return Flux.error(new BusinessRuleException("Invalid cursor: " + after));
+        }
+        log.debug("Listando tarjetas de débito - Filtro: {}, After: {}, Limit: {}", filter, after, pageSize);
+
+        return debitRepository.findPage(filter, after == null ? null : new ObjectId(after), pageSize)
+                .map(debitMapper::toSummary);
+    }
+
+    /**
+     * Resolve many cards by card id and/or customer id (active card) with one $in query per key type
+     * @param request the card ids and customer ids
+     * @return Flux with one result per distinct key, in request order, misses included
+     */
+    public Flux<DebitCardLookupResult> lookupDebitCards(DebitCardLookupRequest request) {
+        List<String> ids = distinctKeys(request.getIds());
+        List<String> customerIds = distinctKeys(request.getCustomerIds());
+
+        if (ids.isEmpty() && customerIds.isEmpty()) {
+            return Flux.error(new BusinessRuleException("At least one card id or customer id is required"));
+        }
+        if (ids.size() + customerIds.size() > lookupMaxKeys) {
+            return Flux.error(new BusinessRuleException(
+                    "Lookup of " + (ids.size() + customerIds.size()) + " keys exceeds the maximum of " + lookupMaxKeys));
+        }
+        log.debug("Consultando {} tarjetas y {} clientes", ids.size(), customerIds.size());
+
+        Mono<Map<String, Debit>> cardsById = ids.isEmpty()
+                ? Mono.just(Map.of())
+                : debitCardCache.findAllById(ids).collectMap(Debit::getId);
+        Mono<Map<String, Debit>> cardsByCustomer = customerIds.isEmpty()
+                ? Mono.just(Map.of())
+                : debitRepository.findByCustomerIdInAndActiveTrue(customerIds).collectMap(Debit::getCustomerId);
+
+        return Mono.zip(cardsById, cardsByCustomer)
+                .flatMapMany(found -> Flux.concat(
+                        Flux.fromIterable(ids).map(id -> lookupResult(
+                                id, DebitCardLookupResult.KeyTypeEnum.CARD_ID, found.getT1().get(id))),
+                        Flux.fromIterable(customerIds).map(customerId -> lookupResult(
+                                customerId, DebitCardLookupResult.KeyTypeEnum.CUSTOMER_ID,
+                                found.getT2().get(customerId)))));
+    }
+
+    private List<String> distinctKeys(List<String> keys) {
+        if (keys == null) {
+            return List.of();
+        }
+        return keys.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+
+    private DebitCardLookupResult lookupResult(String key, DebitCardLookupResult.KeyTypeEnum keyType, Debit card) {
+        return new DebitCardLookupResult()
+                .key(key)
+                .keyType(keyType)
+                .found(card != null)
+                .card(card == null ? null : debitMapper.toResponse(card));
+    }
+
+    /**
+     * Stream every debit card that has the account among its associated accounts
+     * @param accountId the account id
+     * @return Flux of the cards
+     */
+    public Flux<DebitCardResponse> getDebitCardsByAccountId(String accountId) {
+        log.debug("Consultando tarjetas de débito por cuenta asociada: {}", accountId);
+
+        return debitRepository.findByAssociatedAccounts(accountId)
+                .map(debitMapper::toResponse);
+    }
+
+    /**
+     * Detach a closed or frozen account from all debit cards
+     * @param accountId the account id
+     * @return Mono of the detach result
+     */
+    public Mono<AccountDetachResult> detachAccountFromDebitCards(String accountId) {
+        log.info("Desasociando cuenta {} de todas las tarjetas de débito", accountId);
+
+        return debitCardCache.removeAssociatedAccountFromAll(accountId)
+                .doOnNext(modified -> balanceHintCache.invalidate(accountId))
+                .map(modified -> new AccountDetachResult()
+                        .accountId(accountId)
+                        .modifiedCards(modified))
+                .doOnSuccess(result -> log.info("Cuenta {} desasociada de {} tarjetas",
+                        accountId, result.getModifiedCards()))
+                .doOnError(error -> log.error("Error al desasociar cuenta {}: {}", accountId, error.getMessage()));
+    }
+
     public Mono<DebitCardResponse> getDebitCardByCustomerId(String customerId) {
         log.info("Consultando tarjeta de débito activa por CustomerId: {}", customerId);
 
-        return debitRepository.findByCustomerId(customerId)
+        return debitCardCache.findByCustomerId(customerId)
                 .switchIfEmpty(Mono.error(new DebitException(
                         "No active debit card found for customer: " + customerId)))
                 .map(debitMapper::toResponse)
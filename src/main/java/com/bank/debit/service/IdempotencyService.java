@@ -0,0 +1,220 @@
+package com.bank.debit.service;
+
+import com.bank.debit.exception.BusinessRuleException;
+import com.bank.debit.exception.DebitException;
+import com.bank.debit.exception.IdempotencyConflictException;
+import com.bank.debit.exception.InsufficientFundsException;
+import com.bank.debit.model.DebitTransactionRequest;
+import com.bank.debit.model.DebitTransactionResponse;
+import com.bank.debit.model.entity.IdempotencyRecord;
+import com.bank.debit.model.enums.IdempotencyStatus;
+import com.bank.debit.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Idempotent execution of debit transactions.
+ * Completed outcomes are stored in Mongo (expired by a TTL index) with an in-memory front cache,
+ * and duplicate in-flight requests on this instance share the same result.
+ * A key is released for retry only after a definitive business failure; failures after which
+ * the withdrawal may still have gone through are stored as UNKNOWN and answered with 409.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final Cache<String, IdempotencyRecord> completed;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final int saveRetries;
+    private final Duration saveBackoff;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              @Value("${debit.idempotency.cache-ttl:PT10M}") Duration cacheTtl,
+                              @Value("${debit.idempotency.cache-max-size:10000}") long cacheMaxSize,
+                              @Value("${debit.idempotency.save-retries:3}") int saveRetries,
+                              @Value("${debit.idempotency.save-backoff:PT0.1S}") Duration saveBackoff) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.saveRetries = saveRetries;
+        this.saveBackoff = saveBackoff;
+        this.completed = Caffeine.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .maximumSize(cacheMaxSize)
+                .build();
+    }
+
+    /**
+     * Run the transaction at most once per idempotency key
+     * @param idempotencyKey the client key, the operation runs unguarded when blank
+     * @param request the transaction request
+     * @param operation the transaction to run
+     * @return Mono of the original or replayed response
+     */
+    public Mono<DebitTransactionResponse> execute(String idempotencyKey,
+                                                  DebitTransactionRequest request,
+                                                  Supplier<Mono<DebitTransactionResponse>> operation) {
+        if (!StringUtils.hasText(idempotencyKey)) {
+            return operation.get();
+        }
+
+        String requestHash = hash(request);
+
+        return Mono.defer(() -> {
+            IdempotencyRecord stored = completed.getIfPresent(idempotencyKey);
+            if (stored != null) {
+                log.info("Respuesta idempotente desde memoria - Key: {}", idempotencyKey);
+                return replay(stored, requestHash);
+            }
+
+            InFlight execution = inFlight.computeIfAbsent(idempotencyKey,
+                    key -> new InFlight(requestHash, start(key, requestHash, operation)));
+            if (!execution.requestHash().equals(requestHash)) {
+                return Mono.error(new IdempotencyConflictException(
+                        "Idempotency key is already used by a different request"));
+            }
+            return execution.result();
+        });
+    }
+
+    private Mono<DebitTransactionResponse> start(String key,
+                                                 String requestHash,
+                                                 Supplier<Mono<DebitTransactionResponse>> operation) {
+        IdempotencyRecord marker = IdempotencyRecord.builder()
+                .key(key)
+                .requestHash(requestHash)
+                .status(IdempotencyStatus.IN_PROGRESS)
+                .build();
+
+        return idempotencyRecordRepository.insert(marker)
+                .flatMap(saved -> operation.get()
+                        .flatMap(response -> complete(saved, response))
+                        .onErrorResume(error -> (isDefinitive(error) ? release(key) : markUnknown(saved, error))
+                                .then(Mono.error(error))))
+                .onErrorResume(DuplicateKeyException.class, error -> replayStored(key, requestHash))
+                .doFinally(signal -> inFlight.remove(key))
+                // Shared by coalesced callers; a cancelled caller does not cancel the debit
+                .cache();
+    }
+
+    private Mono<DebitTransactionResponse> complete(IdempotencyRecord marker, DebitTransactionResponse response) {
+        IdempotencyRecord outcome = marker.toBuilder()
+                .status(IdempotencyStatus.COMPLETED)
+                .transactionId(response.getTransactionId())
+                .debitCardId(response.getDebitCardId())
+                .accountId(response.getAccountId())
+                .amount(response.getAmount())
+                .description(response.getDescription())
+                .timestamp(response.getTimestamp() == null
+                        ? null : response.getTimestamp().withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime())
+                .transactionStatus(response.getStatus())
+                .build();
+
+        // Replays on this instance work even if the outcome never reaches Mongo
+        completed.put(outcome.getKey(), outcome);
+        return saveWithRetry(outcome)
+                .thenReturn(response)
+                .onErrorResume(error -> {
+                    // The debit went through; losing the stored outcome must not fail the request
+                    log.error("No se pudo guardar el resultado idempotente {}: {}", marker.getKey(), error.getMessage());
+                    return Mono.just(response);
+                });
+    }
+
+    /**
+     * Business rejections happen before or instead of the withdrawal, so the key can be retried
+     */
+    private static boolean isDefinitive(Throwable error) {
+        return error instanceof InsufficientFundsException
+                || error instanceof BusinessRuleException
+                || error instanceof DebitException;
+    }
+
+    private Mono<Void> markUnknown(IdempotencyRecord marker, Throwable error) {
+        IdempotencyRecord unknown = marker.toBuilder()
+                .status(IdempotencyStatus.UNKNOWN)
+                .errorMessage(error.getMessage())
+                .build();
+        log.warn("Resultado desconocido para la clave idempotente {}, requiere conciliación: {}",
+                marker.getKey(), error.getMessage());
+        completed.put(unknown.getKey(), unknown);
+        return saveWithRetry(unknown)
+                .then()
+                .onErrorResume(saveError -> {
+                    // The IN_PROGRESS marker stays, which still blocks retries until its TTL
+                    log.error("No se pudo marcar la clave idempotente {} como UNKNOWN: {}",
+                            marker.getKey(), saveError.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<IdempotencyRecord> saveWithRetry(IdempotencyRecord record) {
+        return idempotencyRecordRepository.save(record)
+                .retryWhen(Retry.backoff(saveRetries, saveBackoff));
+    }
+
+    private Mono<Void> release(String key) {
+        return idempotencyRecordRepository.deleteById(key)
+                .onErrorResume(error -> {
+                    log.warn("No se pudo liberar la clave idempotente {}: {}", key, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<DebitTransactionResponse> replayStored(String key, String requestHash) {
+        return idempotencyRecordRepository.findById(key)
+                .switchIfEmpty(Mono.error(new IdempotencyConflictException(
+                        "Idempotency key is being processed, retry later")))
+                .flatMap(stored -> {
+                    if (stored.getStatus() == IdempotencyStatus.IN_PROGRESS) {
+                        return Mono.error(new IdempotencyConflictException(
+                                "A request with this idempotency key is already in progress"));
+                    }
+                    completed.put(key, stored);
+                    log.info("Respuesta idempotente desde Mongo - Key: {}", key);
+                    return replay(stored, requestHash);
+                });
+    }
+
+    private Mono<DebitTransactionResponse> replay(IdempotencyRecord stored, String requestHash) {
+        if (!stored.getRequestHash().equals(requestHash)) {
+            return Mono.error(new IdempotencyConflictException(
+                    "Idempotency key is already used by a different request"));
+        }
+        if (stored.getStatus() == IdempotencyStatus.UNKNOWN) {
+            return Mono.error(new IdempotencyConflictException(
+                    "The outcome of the request with this idempotency key is unknown and under reconciliation"));
+        }
+
+        DebitTransactionResponse response = new DebitTransactionResponse();
+        response.setTransactionId(stored.getTransactionId());
+        response.setDebitCardId(stored.getDebitCardId());
+        response.setAccountId(stored.getAccountId());
+        response.setAmount(stored.getAmount());
+        response.setDescription(stored.getDescription());
+        response.setTimestamp(stored.getTimestamp() == null ? null : stored.getTimestamp().atOffset(ZoneOffset.UTC));
+        response.setStatus(stored.getTransactionStatus());
+        return Mono.just(response);
+    }
+
+    String hash(DebitTransactionRequest request) {
+        String fingerprint = request.getDebitCardId() + "|" + request.getAmount() + "|" + request.getDescription();
+        return DigestUtils.md5DigestAsHex(fingerprint.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record InFlight(String requestHash, Mono<DebitTransactionResponse> result) {
+    }
+}
@@ -1,15 +1,22 @@
 package com.bank.debit.validator;
 
-import com.bank.debit.client.AccountClient;
-import com.bank.debit.client.CustomerClient;
+import com.bank.debit.cache.ReactiveLookupCache;
 import com.bank.debit.exception.BusinessRuleException;
 import com.bank.debit.exception.DebitException;
+import com.bank.debit.exception.ValidationException;
+import com.bank.debit.model.dto.AccountResponse;
+import com.bank.debit.model.dto.CustomerResponse;
 import com.bank.debit.model.entity.Debit;
-import com.bank.debit.repository.DebitRepository;
-import java.time.LocalDateTime;
+import com.bank.debit.model.enums.ProjectionType;
+import com.bank.debit.model.enums.ValidationMode;
+import com.bank.debit.projection.StatusProjectionService;
+import io.micrometer.observation.ObservationRegistry;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Slf4j
@@ -17,75 +24,103 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class DebitValidator {
 
-  private final AccountClient accountClient;
-  private final CustomerClient customerClient;
-  private final DebitRepository debitRepository;
+  private final ReactiveLookupCache<AccountResponse> accountLookupCache;
+  private final ReactiveLookupCache<CustomerResponse> customerLookupCache;
+  private final StatusProjectionService statusProjectionService;
+  private final ObservationRegistry observationRegistry;
+
+  /**
+   * Run independent checks concurrently, so the latency is that of the slowest one.
+   *
+   * @param mode FAIL_FAST cancels the remaining checks on the first violation; COLLECT_ALL waits
+   *     for all of them and fails with a ValidationException listing every violation
+   * @param checks the checks, each completing empty when satisfied
+   * @return Mono completing empty when every check passes
+   */
+  public Mono<Void> validateAll(ValidationMode mode, List<Mono<Void>> checks) {
+    if (mode == ValidationMode.FAIL_FAST) {
+      return Mono.when(checks);
+    }
+
+    // Infrastructure errors (e.g. ServiceUnavailableException) are not violations and propagate
+    return Flux.fromIterable(checks)
+        .flatMapSequential(
+            check ->
+                check
+                    .then(Mono.<String>empty())
+                    .onErrorResume(this::isViolation, error -> Mono.just(error.getMessage())))
+        .collectList()
+        .flatMap(
+            violations -> {
+              if (violations.isEmpty()) {
+                return Mono.<Void>empty();
+              }
+              log.debug("Validación con {} violaciones: {}", violations.size(), violations);
+              return Mono.<Void>error(new ValidationException(violations));
+            });
+  }
+
+  private boolean isViolation(Throwable error) {
+    return error instanceof BusinessRuleException || error instanceof DebitException;
+  }
 
   public Mono<Void> validateCustomerIsActive(String customerId) {
     log.debug("Validando customer activo: {}", customerId);
 
-    return customerClient
-        .getCustomerById(customerId)
-        .switchIfEmpty(Mono.error(new DebitException("Customer not found: " + customerId)))
+    return statusProjectionService
+        .findActive(ProjectionType.CUSTOMER, customerId)
+        .switchIfEmpty(
+            customerLookupCache
+                .get(customerId)
+                .switchIfEmpty(Mono.error(new DebitException("Customer not found: " + customerId)))
+                .map(CustomerResponse::isActive)
+                .doOnNext(
+                    active ->
+                        statusProjectionService.remember(ProjectionType.CUSTOMER, customerId, active)))
         .flatMap(
-            customer -> {
-              if (!customer.isActive()) {
-                return Mono.error(new BusinessRuleException("Customer is inactive: " + customerId));
+            active -> {
+              if (!active) {
+                return Mono.<Void>error(new BusinessRuleException("Customer is inactive: " + customerId));
               }
               log.debug("Customer {} está activo", customerId);
-              return Mono.empty();
-            });
+              return Mono.<Void>empty();
+            })
+        .as(validation -> traced(validation, "customer_active"));
   }
 
   public Mono<Void> validateAccountIsActive(String accountId) {
     log.debug("Validando account activa: {}", accountId);
 
-    return accountClient
-        .getAccount(accountId)
-        .switchIfEmpty(Mono.error(new DebitException("Account not found: " + accountId)))
+    return statusProjectionService
+        .findActive(ProjectionType.ACCOUNT, accountId)
+        .switchIfEmpty(
+            accountLookupCache
+                .get(accountId)
+                .switchIfEmpty(Mono.error(new DebitException("Account not found: " + accountId)))
+                .map(account -> Boolean.TRUE.equals(account.getActive()))
+                .doOnNext(
+                    active ->
+                        statusProjectionService.remember(ProjectionType.ACCOUNT, accountId, active)))
         .flatMap(
-            account -> {
-              if (!account.getActive()) {
-                return Mono.error(new BusinessRuleException("Account is inactive: " + accountId));
+            active -> {
+              if (!active) {
+                return Mono.<Void>error(new BusinessRuleException("Account is inactive: " + accountId));
               }
               log.debug("Account {} está activa", accountId);
-              return Mono.empty();
-            });
-  }
-
-  public Mono<Void> validateDebitCardNotExists(String customerId, String accountId) {
-    log.debug(
-        "Validando que no exista tarjeta de débito para customer: {} y account: {}",
-        customerId,
-        accountId);
-
-    return debitRepository
-        .findByCustomerIdAndPrimaryAccountId(customerId, accountId)
-        .flatMap(
-            existingCard -> {
-              log.warn(
-                  "Ya existe una tarjeta de débito para customer: {} y account: {}",
-                  customerId,
-                  accountId);
-              return Mono.<Void>error(
-                  new BusinessRuleException("Customer already has a debit card for this account"));
+              return Mono.<Void>empty();
             })
-        .then();
+        .as(validation -> traced(validation, "account_active"));
   }
 
-  public Mono<Debit> validateAndAssociateAccount(Debit debitCard, String accountId) {
+  public Mono<Void> validateAccountCanBeAssociated(Debit debitCard, String accountId) {
     log.debug("Validando cuenta {} para asociar a tarjeta {}", accountId, debitCard.getId());
 
-    return validateAccountIsActive(accountId)
-        .then(validateAccountNotAlreadyAssociated(debitCard, accountId))
-        .then(
-            Mono.fromCallable(
-                () -> {
-                  debitCard.getAssociatedAccounts().add(accountId);
-                  debitCard.setUpdatedAt(LocalDateTime.now());
-                  log.debug("Cuenta {} agregada a la lista de cuentas asociadas", accountId);
-                  return debitCard;
-                }));
+    // The local check fails before the remote lookup completes and cancels it
+    return validateAll(
+        ValidationMode.FAIL_FAST,
+        List.of(
+            validateAccountNotAlreadyAssociated(debitCard, accountId),
+            validateAccountIsActive(accountId)));
   }
 
   public Mono<Void> validateAccountNotAlreadyAssociated(Debit debitCard, String accountId) {
@@ -97,4 +132,12 @@ public class DebitValidator {
     }
     return Mono.empty();
   }
+
+  /** One span per validation rule, parented to the request observation. */
+  private Mono<Void> traced(Mono<Void> validation, String rule) {
+    return validation
+        .name("debit.validation")
+        .tag("rule", rule)
+        .tap(Micrometer.observation(observationRegistry));
+  }
 }
@@ -0,0 +1,247 @@
+package com.bank.debit.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bank.debit.config.HedgingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class RequestHedgerTest {
+
+    private static final Duration HEDGE_DELAY = Duration.ofMillis(500);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void fastPrimaryIsNotHedged() {
+        RequestHedger hedger = hedger(10);
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.withVirtualTime(() -> hedger.hedge("account", attempt -> {
+                    calls.incrementAndGet();
+                    return Mono.delay(Duration.ofMillis(100)).thenReturn("primary");
+                }))
+                .thenAwait(Duration.ofMillis(100))
+                .expectNext("primary")
+                .verifyComplete();
+
+        assertEquals(1, calls.get());
+        assertEquals(0, count("sent"));
+    }
+
+    @Test
+    void hedgeWinsAndCancelsSlowPrimary() {
+        RequestHedger hedger = hedger(10);
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+
+        StepVerifier.withVirtualTime(() -> hedger.hedge("account", attempt -> attempt.isHedge()
+                        ? Mono.delay(Duration.ofMillis(50)).thenReturn("hedge")
+                        : Mono.delay(Duration.ofSeconds(2)).thenReturn("primary")
+                                .doOnCancel(() -> primaryCancelled.set(true))))
+                .thenAwait(HEDGE_DELAY.plusMillis(50))
+                .expectNext("hedge")
+                .verifyComplete();
+
+        assertTrue(primaryCancelled.get());
+        assertEquals(1, count("sent"));
+        assertEquals(1, count("won"));
+    }
+
+    @Test
+    void primaryWinsAndCancelsHedge() {
+        RequestHedger hedger = hedger(10);
+        AtomicBoolean hedgeCancelled = new AtomicBoolean();
+
+        StepVerifier.withVirtualTime(() -> hedger.hedge("account", attempt -> attempt.isHedge()
+                        ? Mono.delay(Duration.ofSeconds(2)).thenReturn("hedge")
+                                .doOnCancel(() -> hedgeCancelled.set(true))
+                        : Mono.delay(Duration.ofMillis(600)).thenReturn("primary")))
+                .thenAwait(Duration.ofMillis(600))
+                .expectNext("primary")
+                .verifyComplete();
+
+        assertTrue(hedgeCancelled.get());
+        assertEquals(0, count("won"));
+    }
+
+    @Test
+    void failedHedgeDoesNotMaskThePrimary() {
+        RequestHedger hedger = hedger(10);
+
+        StepVerifier.withVirtualTime(() -> hedger.hedge("account", attempt -> attempt.isHedge()
+                        ? Mono.error(new IllegalStateException("hedge failed"))
+                        : Mono.delay(Duration.ofSeconds(1)).thenReturn("primary")))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext("primary")
+                .verifyComplete();
+    }
+
+    @Test
+    void primaryErrorIsReportedWithoutWaitingForTheHedge() {
+        RequestHedger hedger = hedger(10);
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.withVirtualTime(() -> hedger.hedge("account", attempt -> {
+                    calls.incrementAndGet();
+                    return Mono.<String>error(new IllegalArgumentException("account not found"));
+                }))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void noHedgeIsSentOnceTheBudgetIsSpent() {
+        RequestHedger hedger = hedger(1);
+        AtomicInteger hedges = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.withVirtualTime(() -> hedger.hedge("account", attempt -> {
+                        if (attempt.isHedge()) {
+                            hedges.incrementAndGet();
+                            return Mono.just("hedge");
+                        }
+                        return Mono.delay(Duration.ofSeconds(1)).thenReturn("primary");
+                    }))
+                    .thenAwait(Duration.ofSeconds(1))
+                    .expectNextCount(1)
+                    .verifyComplete();
+        }
+
+        assertEquals(1, hedges.get());
+        assertEquals(1, count("sent"));
+        assertEquals(1, count("budget_exhausted"));
+    }
+
+    @Test
+    void hedgeCarriesThePrimaryInstanceToExclude() {
+        RequestHedger hedger = hedger(10);
+        AtomicReference<HedgeAttempt> hedgeAttempt = new AtomicReference<>();
+
+        StepVerifier.withVirtualTime(() -> hedger.hedge("account", attempt -> {
+                    if (attempt.isHedge()) {
+                        hedgeAttempt.set(attempt);
+                        return Mono.just("hedge");
+                    }
+                    attempt.onInstanceChosen(instance("10.0.0.1"));
+                    return Mono.<String>never();
+                }))
+                .thenAwait(HEDGE_DELAY)
+                .expectNext("hedge")
+                .verifyComplete();
+
+        assertEquals("10.0.0.1:8080", hedgeAttempt.get().excludedInstance());
+    }
+
+    @Test
+    void supplierLeavesThePrimaryInstanceOutForTheHedge() {
+        ServiceInstance first = instance("10.0.0.1");
+        ServiceInstance second = instance("10.0.0.2");
+        HedgeExclusionServiceInstanceListSupplier supplier =
+                new HedgeExclusionServiceInstanceListSupplier(staticSupplier(List.of(first, second)));
+
+        HedgeAttempt primary = HedgeAttempt.primary();
+        primary.onInstanceChosen(first);
+
+        StepVerifier.create(supplier.get(request(primary.hedge())))
+                .expectNext(List.of(second))
+                .verifyComplete();
+        StepVerifier.create(supplier.get(request(primary)))
+                .expectNext(List.of(first, second))
+                .verifyComplete();
+        assertNull(primary.excludedInstance());
+    }
+
+    @Test
+    void singleInstanceIsStillUsedForTheHedge() {
+        ServiceInstance only = instance("10.0.0.1");
+        HedgeExclusionServiceInstanceListSupplier supplier =
+                new HedgeExclusionServiceInstanceListSupplier(staticSupplier(List.of(only)));
+
+        HedgeAttempt primary = HedgeAttempt.primary();
+        primary.onInstanceChosen(only);
+
+        StepVerifier.create(supplier.get(request(primary.hedge())))
+                .assertNext(instances -> assertSame(only, instances.get(0)))
+                .verifyComplete();
+    }
+
+    @Test
+    void disabledClientIsCalledOnce() {
+        RequestHedger hedger = new RequestHedger(new HedgingProperties(), meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.create(hedger.hedge("account", attempt -> {
+                    assertFalse(attempt.isHedge());
+                    calls.incrementAndGet();
+                    return Mono.just("primary");
+                }))
+                .expectNext("primary")
+                .verifyComplete();
+
+        assertEquals(1, calls.get());
+    }
+
+    private RequestHedger hedger(int budgetBurst) {
+        HedgingProperties.Hedge settings = new HedgingProperties.Hedge();
+        settings.setEnabled(true);
+        settings.setMaxDelay(HEDGE_DELAY);
+        settings.setBudgetRatio(0);
+        settings.setBudgetBurst(budgetBurst);
+        HedgingProperties properties = new HedgingProperties();
+        properties.getClients().put("account", settings);
+        return new RequestHedger(properties, meterRegistry);
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter(RequestHedger.HEDGE_COUNTER, "client", "account", "outcome", outcome).count();
+    }
+
+    private static ServiceInstance instance(String host) {
+        return new DefaultServiceInstance(host, "account-service", host, 8080, false);
+    }
+
+    private static DefaultRequest<RequestDataContext> request(HedgeAttempt attempt) {
+        ClientRequest clientRequest = ClientRequest.create(HttpMethod.GET, URI.create("http://account-service/api/accounts/1"))
+                .attribute(HedgeAttempt.ATTRIBUTE, attempt)
+                .build();
+        return new DefaultRequest<>(new RequestDataContext(new RequestData(clientRequest)));
+    }
+
+    private static ServiceInstanceListSupplier staticSupplier(List<ServiceInstance> instances) {
+        return new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return "account-service";
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.just(instances);
+            }
+        };
+    }
+}
@@ -0,0 +1,215 @@
+package com.bank.debit.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bank.debit.deadline.Deadline;
+import com.bank.debit.exception.DeadlineExceededException;
+import com.bank.debit.exception.ServiceUnavailableException;
+import com.bank.debit.exception.WithdrawalOutcomeUnknownException;
+import com.bank.debit.model.dto.TransactionResponse;
+import com.bank.debit.model.dto.WithdrawalRequest;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.ContextView;
+
+class WithdrawalBatcherTest {
+
+    private static final Duration LINGER = Duration.ofMillis(50);
+    // Generous enough for the first JSON exchange of a cold JVM
+    private static final Duration BULK_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration SHORT_BULK_TIMEOUT = Duration.ofMillis(200);
+    private static final String TRACE_KEY = "trace";
+
+    @Test
+    void bulkResultsAreHandedBackInOrder() {
+        WithdrawalBatcher batcher = batcher(bulk("[{\"accountId\":\"acc-1\",\"status\":\"COMPLETED\"},"
+                + "{\"accountId\":\"acc-2\",\"status\":\"COMPLETED\"}]"), request -> Mono.never());
+        try {
+            StepVerifier.create(Mono.zip(batcher.submit(withdrawal("acc-1")), batcher.submit(withdrawal("acc-2"))))
+                    .assertNext(results -> {
+                        assertEquals("acc-1", results.getT1().getAccountId());
+                        assertEquals("acc-2", results.getT2().getAccountId());
+                    })
+                    .verifyComplete();
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    void resultsForOtherAccountsFailTheWholeBatch() {
+        WithdrawalBatcher batcher = batcher(bulk("[{\"accountId\":\"acc-2\",\"status\":\"COMPLETED\"},"
+                + "{\"accountId\":\"acc-1\",\"status\":\"COMPLETED\"}]"), request -> Mono.never());
+        try {
+            assertBatchFails(submitted(batcher, "acc-1"), submitted(batcher, "acc-2"));
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    void missingResultsFailTheWholeBatch() {
+        WithdrawalBatcher batcher = batcher(bulk("[{\"accountId\":\"acc-1\",\"status\":\"COMPLETED\"}]"),
+                request -> Mono.never());
+        try {
+            assertBatchFails(submitted(batcher, "acc-1"), submitted(batcher, "acc-2"));
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    void slowBulkCallFailsItsCallersAfterTheTimeout() {
+        WithdrawalBatcher batcher = batcher(request -> Mono.never(), request -> Mono.never(), SHORT_BULK_TIMEOUT);
+        try {
+            assertBatchFails(submitted(batcher, "acc-1"), submitted(batcher, "acc-2"));
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    void shutdownFailsCallersStillWaitingAndRejectsNewOnes() {
+        AtomicInteger singleCalls = new AtomicInteger();
+        WithdrawalBatcher batcher = batcher(request -> Mono.never(), request -> {
+            singleCalls.incrementAndGet();
+            return Mono.never();
+        }, SHORT_BULK_TIMEOUT);
+
+        Mono<TransactionResponse> waiting = submitted(batcher, "acc-1");
+        batcher.shutdown();
+
+        StepVerifier.create(waiting)
+                .expectError(WithdrawalOutcomeUnknownException.class)
+                .verify(Duration.ofSeconds(1));
+        StepVerifier.create(batcher.submit(withdrawal("acc-2")))
+                .expectError(ServiceUnavailableException.class)
+                .verify(Duration.ofSeconds(1));
+        // The queued item was still dispatched before giving up on it
+        assertEquals(1, singleCalls.get());
+    }
+
+    @Test
+    void bulkCallCarriesTheTightestDeadlineAndItsCallersContext() {
+        AtomicReference<ContextView> bulkContext = new AtomicReference<>();
+        ExchangeFunction bulkService = request -> Mono.deferContextual(context -> {
+            bulkContext.set(context);
+            return bulk("[{\"accountId\":\"acc-1\",\"status\":\"COMPLETED\"},"
+                    + "{\"accountId\":\"acc-2\",\"status\":\"COMPLETED\"}]").exchange(request);
+        });
+        WithdrawalBatcher batcher = batcher(bulkService, request -> Mono.never());
+        try {
+            Mono<TransactionResponse> relaxed = submitted(batcher, "acc-1", Duration.ofSeconds(30), "request-1");
+            Mono<TransactionResponse> tight = submitted(batcher, "acc-2", Duration.ofSeconds(3), "request-2");
+
+            StepVerifier.create(Mono.zip(relaxed, tight))
+                    .expectNextCount(1)
+                    .verifyComplete();
+
+            Duration remaining = Deadline.from(bulkContext.get()).remaining();
+            assertTrue(remaining.compareTo(Duration.ofSeconds(3)) <= 0, "bulk budget was " + remaining);
+            assertEquals("request-2", bulkContext.get().get(TRACE_KEY));
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    void itemsWhoseDeadlineExpiredWhileQueuedAreNotSent() {
+        AtomicInteger bulkCalls = new AtomicInteger();
+        AtomicReference<ContextView> singleContext = new AtomicReference<>();
+        WithdrawalBatcher batcher = batcher(request -> {
+            bulkCalls.incrementAndGet();
+            return Mono.never();
+        }, request -> Mono.deferContextual(context -> {
+            singleContext.set(context);
+            return Mono.just(TransactionResponse.builder().accountId(request.getAccountId()).build());
+        }));
+        try {
+            Mono<TransactionResponse> expired = submitted(batcher, "acc-1", Duration.ZERO, "request-1");
+            Mono<TransactionResponse> live = submitted(batcher, "acc-2", Duration.ofSeconds(30), "request-2");
+
+            StepVerifier.create(expired)
+                    .expectError(DeadlineExceededException.class)
+                    .verify(Duration.ofSeconds(1));
+            // The only item left goes as a single call, still in its caller's context
+            StepVerifier.create(live)
+                    .assertNext(response -> assertEquals("acc-2", response.getAccountId()))
+                    .verifyComplete();
+            assertEquals(0, bulkCalls.get());
+            assertEquals("request-2", singleContext.get().get(TRACE_KEY));
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    /**
+     * Submit with a request deadline and a marker standing in for the caller's trace context
+     */
+    private static Mono<TransactionResponse> submitted(WithdrawalBatcher batcher, String accountId,
+                                                       Duration deadline, String trace) {
+        Mono<TransactionResponse> result = batcher.submit(withdrawal(accountId))
+                .contextWrite(context -> Deadline.put(context, Deadline.after(deadline)).put(TRACE_KEY, trace))
+                .cache();
+        result.subscribe(response -> { }, error -> { });
+        return result;
+    }
+
+    /**
+     * Submit now, so that items submitted together share a batch, and keep the outcome
+     */
+    private static Mono<TransactionResponse> submitted(WithdrawalBatcher batcher, String accountId) {
+        Mono<TransactionResponse> result = batcher.submit(withdrawal(accountId)).cache();
+        result.subscribe(response -> { }, error -> { });
+        return result;
+    }
+
+    @SafeVarargs
+    private static void assertBatchFails(Mono<TransactionResponse>... results) {
+        for (Mono<TransactionResponse> result : results) {
+            StepVerifier.create(result)
+                    .expectError(WithdrawalOutcomeUnknownException.class)
+                    .verify(Duration.ofSeconds(2));
+        }
+    }
+
+    private static WithdrawalBatcher batcher(ExchangeFunction bulkService,
+                                             Function<WithdrawalRequest, Mono<TransactionResponse>> singleCall) {
+        return batcher(bulkService, singleCall, BULK_TIMEOUT);
+    }
+
+    private static WithdrawalBatcher batcher(ExchangeFunction bulkService,
+                                             Function<WithdrawalRequest, Mono<TransactionResponse>> singleCall,
+                                             Duration bulkTimeout) {
+        return new WithdrawalBatcher(WebClient.builder().exchangeFunction(bulkService).build(),
+                "/api/transactions/withdrawal/bulk", 2, LINGER, 4, Duration.ofMinutes(5), bulkTimeout, singleCall);
+    }
+
+    private static ExchangeFunction bulk(String body) {
+        return request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+    }
+
+    private static WithdrawalRequest withdrawal(String accountId) {
+        return WithdrawalRequest.builder()
+                .accountId(accountId)
+                .amount(BigDecimal.TEN)
+                .description("Compra")
+                .build();
+    }
+}
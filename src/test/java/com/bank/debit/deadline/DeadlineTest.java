@@ -0,0 +1,137 @@
+package com.bank.debit.deadline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bank.debit.cache.ReactiveLookupCache;
+import com.bank.debit.config.DeadlineProperties;
+import com.bank.debit.exception.DeadlineExceededException;
+import com.bank.debit.exception.WithdrawalOutcomeUnknownException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+class DeadlineTest {
+
+    @Test
+    void boundedCallGetsOnlyTheTimeLeft() {
+        StepVerifier.create(Deadline.bounded(Mono.never(), Duration.ofSeconds(2))
+                        .contextWrite(context -> Deadline.put(context, Deadline.after(Duration.ofMillis(50)))))
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void boundedCallKeepsItsOwnShorterTimeout() {
+        StepVerifier.create(Deadline.bounded(Mono.never(), Duration.ofMillis(50))
+                        .contextWrite(context -> Deadline.put(context, Deadline.after(Duration.ofSeconds(5)))))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void cachedLookupMissGetsOnlyTheTimeLeft() {
+        // Same shape as the account and customer lookups: a 2s client timeout behind the cache
+        ReactiveLookupCache<String> cache = new ReactiveLookupCache<>("lookup", Duration.ofMinutes(1), 10,
+                key -> Deadline.bounded(Mono.never(), Duration.ofSeconds(2)), new SimpleMeterRegistry());
+
+        StepVerifier.create(cache.get("acc-1")
+                        .contextWrite(context -> Deadline.put(context, Deadline.after(Duration.ofMillis(50)))))
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void expiredDeadlineDoesNotSubscribe() {
+        AtomicBoolean subscribed = new AtomicBoolean();
+        Mono<String> call = Mono.fromCallable(() -> {
+            subscribed.set(true);
+            return "sent";
+        });
+
+        StepVerifier.create(Deadline.boundedWait(call, IllegalStateException::new)
+                        .contextWrite(context -> Deadline.put(context, Deadline.after(Duration.ZERO))))
+                .expectError(DeadlineExceededException.class)
+                .verify();
+        assertFalse(subscribed.get());
+    }
+
+    @Test
+    void boundedWaitReportsUnknownOutcomeWithoutCancellingTheCall() throws InterruptedException {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CountDownLatch completed = new CountDownLatch(1);
+        Mono<String> withdrawal = Mono.delay(Duration.ofMillis(200))
+                .map(tick -> "tx-1")
+                .doOnCancel(() -> cancelled.set(true))
+                .doOnSuccess(transaction -> completed.countDown());
+
+        StepVerifier.create(Deadline.boundedWait(withdrawal,
+                                () -> new WithdrawalOutcomeUnknownException("outcome unknown"))
+                        .contextWrite(context -> Deadline.put(context, Deadline.after(Duration.ofMillis(50)))))
+                .expectError(WithdrawalOutcomeUnknownException.class)
+                .verify(Duration.ofSeconds(1));
+
+        assertTrue(completed.await(1, TimeUnit.SECONDS));
+        assertFalse(cancelled.get());
+    }
+
+    @Test
+    void withTimeoutKeepsTheSoonerDeadline() {
+        Deadline request = Deadline.after(Duration.ofMillis(100));
+        Context context = Deadline.put(Context.empty(), request);
+
+        assertEquals(request, Deadline.from(Deadline.withTimeout(context, Duration.ofSeconds(5))));
+        Deadline item = Deadline.from(Deadline.withTimeout(Context.empty(), Duration.ofSeconds(5)));
+        assertNotNull(item);
+        assertTrue(item.remaining().compareTo(Duration.ofSeconds(4)) > 0);
+    }
+
+    @Test
+    void batchStreamHasNoRequestDeadlineUnlessConfigured() {
+        DeadlineProperties properties = new DeadlineProperties();
+
+        assertNull(filter(properties, MockServerHttpRequest.post("/api/debit-cards/transaction/batch").build()));
+
+        properties.getEndpoints().put("transaction_batch", Duration.ofSeconds(60));
+        Deadline configured = filter(properties, MockServerHttpRequest.post("/api/debit-cards/transaction/batch").build());
+        assertNotNull(configured);
+        assertTrue(configured.remaining().compareTo(Duration.ofSeconds(59)) > 0);
+    }
+
+    @Test
+    void inboundHeaderIsCappedAtTheMaximum() {
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.setMaxTimeout(Duration.ofSeconds(1));
+
+        Deadline deadline = filter(properties, MockServerHttpRequest.post("/api/debit-cards/transaction")
+                .header(Deadline.HEADER, "60000")
+                .build());
+
+        assertNotNull(deadline);
+        assertTrue(deadline.remaining().compareTo(Duration.ofSeconds(1)) <= 0);
+    }
+
+    private static Deadline filter(DeadlineProperties properties, MockServerHttpRequest request) {
+        AtomicReference<Deadline> captured = new AtomicReference<>();
+        WebFilterChain chain = exchange -> Mono.deferContextual(context -> {
+            captured.set(Deadline.from(context));
+            return Mono.empty();
+        });
+        new DeadlineWebFilter(properties).filter(MockServerWebExchange.from(request), chain).block();
+        return captured.get();
+    }
+}
@@ -0,0 +1,135 @@
+package com.bank.debit.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bank.debit.config.DebitEventProperties;
+import com.bank.debit.config.KafkaEventConfig;
+import com.bank.debit.model.entity.OutboxEvent;
+import com.bank.debit.model.enums.DebitEventType;
+import com.bank.debit.model.enums.OutboxStatus;
+import com.bank.debit.repository.OutboxEventRepository;
+import com.mongodb.client.result.UpdateResult;
+import java.util.Map;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.KafkaSender;
+import reactor.test.StepVerifier;
+
+@EmbeddedKafka(partitions = 1, topics = OutboxRelayTest.TOPIC)
+class OutboxRelayTest {
+
+    static final String TOPIC = "debit-events-test";
+
+    @Test
+    void relaysPendingEventsToKafkaAndMarksThemPublished(EmbeddedKafkaBroker broker) {
+        DebitEventProperties properties = new DebitEventProperties();
+        properties.setEnabled(true);
+        properties.setTopic(TOPIC);
+        properties.setBootstrapServers(broker.getBrokersAsString());
+        properties.setLingerMs(0);
+
+        OutboxEvent event = OutboxEvent.builder()
+                .id("evt-1")
+                .eventType(DebitEventType.DEBIT_CARD_CREATED)
+                .aggregateId("CARD456789")
+                .payload("{\"eventId\":\"evt-1\",\"eventType\":\"DEBIT_CARD_CREATED\"}")
+                .status(OutboxStatus.PENDING)
+                .build();
+
+        OutboxEventRepository repository = mock(OutboxEventRepository.class);
+        when(repository.findByClaimTokenOrderByCreatedAtAsc(anyString()))
+                .thenReturn(Flux.just(event));
+
+        ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class)))
+                .thenReturn(Flux.just(event));
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(OutboxEvent.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+        KafkaSender<String, String> sender = KafkaSender.create(KafkaEventConfig.senderOptions(properties));
+        try {
+            OutboxRelay relay = new OutboxRelay(repository, mongoTemplate, sender, properties);
+
+            StepVerifier.create(relay.relayPending())
+                    .expectNext(1L)
+                    .verifyComplete();
+        } finally {
+            sender.close();
+        }
+
+        // Claimed under a lease first, then marked published
+        ArgumentCaptor<UpdateDefinition> updates = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate, times(2)).updateMulti(any(Query.class), updates.capture(), eq(OutboxEvent.class));
+        assertEquals(OutboxStatus.IN_FLIGHT, statusSetBy(updates.getAllValues().get(0)));
+        assertEquals(OutboxStatus.PUBLISHED, statusSetBy(updates.getAllValues().get(1)));
+
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("outbox-relay-test", "true", broker);
+        try (Consumer<String, String> consumer = new KafkaConsumer<>(
+                consumerProps, new StringDeserializer(), new StringDeserializer())) {
+            broker.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+
+            ConsumerRecord<String, String> record = KafkaTestUtils.getSingleRecord(consumer, TOPIC);
+            assertEquals("CARD456789", record.key());
+            assertEquals(event.getPayload(), record.value());
+        }
+    }
+
+    @Test
+    void publishesNothingWhenAnotherReplicaClaimedTheRows() {
+        DebitEventProperties properties = new DebitEventProperties();
+        properties.setEnabled(true);
+
+        OutboxEvent event = OutboxEvent.builder()
+                .id("evt-2")
+                .status(OutboxStatus.PENDING)
+                .build();
+
+        // The candidate was claimed elsewhere between the read and the conditional update
+        OutboxEventRepository repository = mock(OutboxEventRepository.class);
+        when(repository.findByClaimTokenOrderByCreatedAtAsc(anyString()))
+                .thenReturn(Flux.empty());
+
+        ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class)))
+                .thenReturn(Flux.just(event));
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(OutboxEvent.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 0L, null)));
+
+        @SuppressWarnings("unchecked")
+        KafkaSender<String, String> sender = mock(KafkaSender.class);
+        // Drain the records so the claim pipeline upstream of the sender runs
+        when(sender.send(any())).thenAnswer(invocation -> Flux.from(invocation.getArgument(0)).thenMany(Flux.empty()));
+
+        OutboxRelay relay = new OutboxRelay(repository, mongoTemplate, sender, properties);
+
+        StepVerifier.create(relay.relayPending())
+                .expectNext(0L)
+                .verifyComplete();
+
+        verify(mongoTemplate, times(1)).updateMulti(any(Query.class), any(UpdateDefinition.class), eq(OutboxEvent.class));
+    }
+
+    private static Object statusSetBy(UpdateDefinition update) {
+        return update.getUpdateObject().get("$set", Document.class).get("status");
+    }
+}
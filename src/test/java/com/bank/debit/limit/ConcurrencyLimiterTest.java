@@ -0,0 +1,184 @@
+package com.bank.debit.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bank.debit.config.ConcurrencyLimitProperties;
+import com.bank.debit.exception.BusinessRuleException;
+import com.bank.debit.exception.ConcurrencyLimitExceededException;
+import com.bank.debit.exception.DeadlineExceededException;
+import com.bank.debit.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class ConcurrencyLimiterTest {
+
+    private static final String ENDPOINT = "transaction";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void permitIsReleasedOnSuccessErrorAndCancel() {
+        ConcurrencyLimiter limiter = limiter(limit(20));
+
+        StepVerifier.create(limiter.limit(ENDPOINT, Mono.just("ok")))
+                .expectNext("ok")
+                .verifyComplete();
+        assertEquals(0, inFlight());
+
+        StepVerifier.create(limiter.limit(ENDPOINT, Mono.error(new BusinessRuleException("rejected"))))
+                .expectError(BusinessRuleException.class)
+                .verify();
+        assertEquals(0, inFlight());
+
+        Disposable pending = limiter.limit(ENDPOINT, Mono.never()).subscribe();
+        assertEquals(1, inFlight());
+        pending.dispose();
+        assertEquals(0, inFlight());
+
+        StepVerifier.create(limiter.limit(ENDPOINT, Flux.just(1, 2, 3)))
+                .expectNext(1, 2, 3)
+                .verifyComplete();
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    void cancelAfterSuccessDoesNotReleaseTwice() {
+        ConcurrencyLimiter limiter = limiter(limit(20));
+
+        // The downstream cancels the limited source after it has already succeeded
+        Disposable request = limiter.limit(ENDPOINT, Mono.just("ok"))
+                .flatMap(value -> Mono.never())
+                .subscribe();
+        request.dispose();
+        assertEquals(0, inFlight());
+
+        StepVerifier.create(limiter.limit(ENDPOINT, Flux.just(1, 2, 3)).take(1))
+                .expectNext(1)
+                .verifyComplete();
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    void requestsOverTheLimitAreRejected() {
+        ConcurrencyLimiter limiter = limiter(limit(1));
+
+        Disposable holding = limiter.limit(ENDPOINT, Mono.never()).subscribe();
+        StepVerifier.create(limiter.limit(ENDPOINT, Mono.just("ok")))
+                .expectError(ConcurrencyLimitExceededException.class)
+                .verify();
+        holding.dispose();
+
+        StepVerifier.create(limiter.limit(ENDPOINT, Mono.just("ok")))
+                .expectNext("ok")
+                .verifyComplete();
+        assertEquals(1, meterRegistry.get(ConcurrencyLimiter.REJECTED_COUNTER).counter().count());
+    }
+
+    @Test
+    void timeoutsShrinkTheLimitAndBusinessErrorsDoNot() {
+        ConcurrencyLimiter limiter = limiter(limit(20));
+
+        StepVerifier.create(limiter.limit(ENDPOINT, Mono.error(new BusinessRuleException("rejected"))))
+                .expectError(BusinessRuleException.class)
+                .verify();
+        assertEquals(20, currentLimit());
+
+        StepVerifier.create(limiter.limit(ENDPOINT, Mono.error(new DeadlineExceededException("late"))))
+                .expectError(DeadlineExceededException.class)
+                .verify();
+        assertEquals(18, currentLimit());
+    }
+
+    @Test
+    void limitGrowsUnderLoadWhileLatencyHolds() {
+        AdaptiveLimit limit = new AdaptiveLimit(limit(20));
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSuccess(Duration.ofMillis(10).toNanos(), limit.current());
+        }
+
+        assertTrue(limit.current() > 20, "limit should grow, was " + limit.current());
+    }
+
+    @Test
+    void limitHoldsWhenMostOfItIsUnused() {
+        AdaptiveLimit limit = new AdaptiveLimit(limit(20));
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSuccess(Duration.ofMillis(10).toNanos(), 2);
+        }
+
+        assertEquals(20, limit.current());
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRises() {
+        AdaptiveLimit limit = new AdaptiveLimit(limit(100));
+        for (int i = 0; i < 20; i++) {
+            limit.onSuccess(Duration.ofMillis(10).toNanos(), limit.current());
+        }
+        int beforeQueueing = limit.current();
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSuccess(Duration.ofMillis(200).toNanos(), limit.current());
+        }
+
+        assertTrue(limit.current() < beforeQueueing,
+                "limit should shrink from " + beforeQueueing + ", was " + limit.current());
+    }
+
+    @Test
+    void repeatedDropsBackOffToTheMinimum() {
+        ConcurrencyLimitProperties.Limit settings = limit(20);
+        AdaptiveLimit limit = new AdaptiveLimit(settings);
+
+        limit.onDropped();
+        assertEquals(18, limit.current());
+        for (int i = 0; i < 100; i++) {
+            limit.onDropped();
+        }
+
+        assertEquals(settings.getMinLimit(), limit.current());
+    }
+
+    @Test
+    void shedRequestsGet503WithRetryAfter() {
+        ResponseEntity<Map<String, Object>> response = new GlobalExceptionHandler()
+                .handleConcurrencyLimitExceeded(new ConcurrencyLimitExceededException(ENDPOINT, Duration.ofSeconds(2)));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    private ConcurrencyLimiter limiter(ConcurrencyLimitProperties.Limit settings) {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.getEndpoints().put(ENDPOINT, settings);
+        return new ConcurrencyLimiter(properties, meterRegistry);
+    }
+
+    private static ConcurrencyLimitProperties.Limit limit(int initialLimit) {
+        ConcurrencyLimitProperties.Limit settings = new ConcurrencyLimitProperties.Limit();
+        settings.setInitialLimit(initialLimit);
+        settings.setMinLimit(1);
+        return settings;
+    }
+
+    private double inFlight() {
+        return meterRegistry.get(ConcurrencyLimiter.IN_FLIGHT_GAUGE).tag("endpoint", ENDPOINT).gauge().value();
+    }
+
+    private double currentLimit() {
+        return meterRegistry.get(ConcurrencyLimiter.LIMIT_GAUGE).tag("endpoint", ENDPOINT).gauge().value();
+    }
+}
@@ -0,0 +1,44 @@
+package com.bank.debit.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+class DebitMetricsTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DebitMetrics debitMetrics = new DebitMetrics(meterRegistry);
+
+    @Test
+    void cancelAfterSuccessIsNotRecordedAgain() {
+        // The downstream cancels the timed stage after it has already succeeded
+        Disposable request = debitMetrics.timeStage("card_load", Mono.just("card"))
+                .flatMap(card -> Mono.never())
+                .subscribe();
+        request.dispose();
+
+        assertEquals(1, meterRegistry.get(DebitMetrics.STAGE_TIMER)
+                .tags("stage", "card_load", "outcome", "success").timer().count());
+        assertNull(meterRegistry.find(DebitMetrics.STAGE_TIMER)
+                .tags("stage", "card_load", "outcome", "cancelled").timer());
+    }
+
+    @Test
+    void accountsTriedIsRecordedPerOutcome() {
+        debitMetrics.recordAccountsTried(1, "success");
+        debitMetrics.recordAccountsTried(3, "success");
+        debitMetrics.recordAccountsTried(2, "insufficient_funds");
+
+        assertEquals(2, meterRegistry.get(DebitMetrics.ACCOUNTS_TRIED)
+                .tag("outcome", "success").summary().count());
+        assertEquals(4, meterRegistry.get(DebitMetrics.ACCOUNTS_TRIED)
+                .tag("outcome", "success").summary().totalAmount());
+        assertEquals(1, meterRegistry.get(DebitMetrics.ACCOUNTS_TRIED)
+                .tag("outcome", "insufficient_funds").summary().count());
+    }
+}
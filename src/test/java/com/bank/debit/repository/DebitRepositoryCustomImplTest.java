@@ -0,0 +1,101 @@
+package com.bank.debit.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bank.debit.model.dto.DebitCardFilter;
+import com.bank.debit.model.dto.DebitCardListItem;
+import com.bank.debit.model.entity.Debit;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveFindOperation;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class DebitRepositoryCustomImplTest {
+
+    private ReactiveMongoTemplate mongoTemplate;
+    private ReactiveFindOperation.FindWithQuery<DebitCardListItem> projection;
+    private DebitRepositoryCustomImpl repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mongoTemplate = mock(ReactiveMongoTemplate.class);
+        ReactiveFindOperation.ReactiveFind<Debit> find = mock(ReactiveFindOperation.ReactiveFind.class);
+        projection = mock(ReactiveFindOperation.FindWithQuery.class);
+        ReactiveFindOperation.TerminatingFind<DebitCardListItem> terminating =
+                mock(ReactiveFindOperation.TerminatingFind.class);
+        when(mongoTemplate.query(Debit.class)).thenReturn(find);
+        when(find.as(DebitCardListItem.class)).thenReturn(projection);
+        when(projection.matching(any(Query.class))).thenReturn(terminating);
+        when(terminating.all()).thenReturn(Flux.empty());
+        repository = new DebitRepositoryCustomImpl(mongoTemplate);
+    }
+
+    @Test
+    void firstPageStartsAtTheLowestId() {
+        StepVerifier.create(repository.findPage(DebitCardFilter.builder().build(), null, 50))
+                .verifyComplete();
+
+        Query query = capturedPageQuery();
+        assertFalse(query.getQueryObject().containsKey("_id"));
+        assertEquals(new Document("_id", 1), query.getSortObject());
+        assertEquals(50, query.getLimit());
+    }
+
+    @Test
+    void nextPageStartsStrictlyAfterTheCursor() {
+        ObjectId after = new ObjectId();
+        DebitCardFilter filter = DebitCardFilter.builder().active(true).customerId("CUST-1").build();
+
+        StepVerifier.create(repository.findPage(filter, after, 2))
+                .verifyComplete();
+
+        Query query = capturedPageQuery();
+        assertEquals(new Document("$gt", after), query.getQueryObject().get("_id"));
+        assertEquals(true, query.getQueryObject().get("active"));
+        assertEquals("CUST-1", query.getQueryObject().get("customerId"));
+        assertEquals(new Document("_id", 1), query.getSortObject());
+        assertEquals(2, query.getLimit());
+    }
+
+    @Test
+    void detachPullsTheAccountAndBumpsTheVersionOfEveryCard() {
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(Debit.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(2, 2L, null)));
+
+        StepVerifier.create(repository.removeAssociatedAccountFromAll("ACC-1"))
+                .expectNext(2L)
+                .verifyComplete();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).updateMulti(query.capture(), update.capture(), eq(Debit.class));
+        assertEquals(new Document("associatedAccounts", "ACC-1"), query.getValue().getQueryObject());
+        Document updateObject = update.getValue().getUpdateObject();
+        assertEquals(new Document("associatedAccounts", "ACC-1"), updateObject.get("$pull"));
+        assertEquals(new Document("version", 1), updateObject.get("$inc"));
+        assertTrue(((Document) updateObject.get("$set")).containsKey("updatedAt"));
+    }
+
+    private Query capturedPageQuery() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(projection).matching(query.capture());
+        return query.getValue();
+    }
+}
@@ -0,0 +1,412 @@
+package com.bank.debit.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bank.debit.cache.BalanceHintCache;
+import com.bank.debit.cache.DebitCardCache;
+import com.bank.debit.client.AccountClient;
+import com.bank.debit.client.CustomerClient;
+import com.bank.debit.client.TransactionClient;
+import com.bank.debit.config.DebitEventProperties;
+import com.bank.debit.event.DebitEventPublisher;
+import com.bank.debit.exception.BusinessRuleException;
+import com.bank.debit.exception.DebitException;
+import com.bank.debit.exception.InsufficientFundsException;
+import com.bank.debit.exception.ValidationException;
+import com.bank.debit.logging.TransactionLogSampler;
+import com.bank.debit.mapper.DebitMapper;
+import com.bank.debit.metrics.DebitMetrics;
+import com.bank.debit.model.CreateDebitCardRequest;
+import com.bank.debit.model.DebitBatchTransactionResult;
+import com.bank.debit.model.DebitCardLookupRequest;
+import com.bank.debit.model.DebitCardLookupResult;
+import com.bank.debit.model.DebitTransactionRequest;
+import com.bank.debit.model.dto.AccountResponse;
+import com.bank.debit.model.dto.DebitCardFilter;
+import com.bank.debit.model.dto.TransactionResponse;
+import com.bank.debit.model.entity.Debit;
+import com.bank.debit.model.entity.OutboxEvent;
+import com.bank.debit.model.enums.TransactionStatus;
+import com.bank.debit.model.enums.ValidationMode;
+import com.bank.debit.model.enums.WithdrawalStrategy;
+import com.bank.debit.repository.DebitRepository;
+import com.bank.debit.repository.OutboxEventRepository;
+import com.bank.debit.validator.DebitValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class DebitServiceTest {
+
+    private static final String CARD_ID = "CARD456789";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AccountClient accountClient;
+    private TransactionClient transactionClient;
+    private DebitRepository debitRepository;
+    private DebitCardCache debitCardCache;
+    private DebitValidator debitValidator;
+    private DebitService debitService;
+
+    @BeforeEach
+    void setUp() {
+        accountClient = mock(AccountClient.class);
+        transactionClient = mock(TransactionClient.class);
+        debitRepository = mock(DebitRepository.class);
+        debitCardCache = mock(DebitCardCache.class);
+        debitValidator = mock(DebitValidator.class);
+        debitService = new DebitService(accountClient, mock(CustomerClient.class), debitRepository, debitValidator,
+                new DebitMapper(), transactionClient, new BalanceHintCache(Duration.ofMinutes(5), 100, false),
+                debitCardCache, null,
+                new DebitEventPublisher(null, new ObjectMapper(), new DebitEventProperties(), null),
+                new DebitMetrics(meterRegistry), ObservationRegistry.NOOP, new TransactionLogSampler(0));
+        ReflectionTestUtils.setField(debitService, "withdrawalStrategy", WithdrawalStrategy.SEQUENTIAL);
+        ReflectionTestUtils.setField(debitService, "balanceLookupConcurrency", 4);
+        ReflectionTestUtils.setField(debitService, "batchConcurrency", 16);
+        ReflectionTestUtils.setField(debitService, "batchMaxSize", 100);
+        ReflectionTestUtils.setField(debitService, "listingDefaultPageSize", 100);
+        ReflectionTestUtils.setField(debitService, "listingMaxPageSize", 1000);
+        ReflectionTestUtils.setField(debitService, "lookupMaxKeys", 10);
+        ReflectionTestUtils.setField(debitService, "validationMode", ValidationMode.FAIL_FAST);
+        ReflectionTestUtils.setField(debitService, "optimisticLockMaxRetries", 3);
+        ReflectionTestUtils.setField(debitService, "deadlineEnabled", false);
+    }
+
+    @Test
+    void snapshotWithdrawsOnceFromTheFirstAccountThatCovers() {
+        ReflectionTestUtils.setField(debitService, "withdrawalStrategy", WithdrawalStrategy.BALANCE_SNAPSHOT);
+        givenCard(card(CARD_ID, "ACC-A", "ACC-B", "ACC-C"));
+        givenBalance("ACC-A", "10");
+        givenBalance("ACC-B", "200");
+        givenBalance("ACC-C", "500");
+        givenWithdrawal("ACC-B", completed("ACC-B", "100"));
+
+        StepVerifier.create(debitService.processTransaction(transaction(CARD_ID, "Compra")))
+                .assertNext(response -> assertEquals("ACC-B", response.getAccountId()))
+                .verifyComplete();
+
+        verify(transactionClient, times(1)).processWithdrawal(anyString(), any(), any());
+        assertEquals(1, fallbackDepth());
+    }
+
+    @Test
+    void staleSnapshotFallsBackToTheOtherAccountsInPriorityOrder() {
+        ReflectionTestUtils.setField(debitService, "withdrawalStrategy", WithdrawalStrategy.BALANCE_SNAPSHOT);
+        givenCard(card(CARD_ID, "ACC-A", "ACC-B", "ACC-C"));
+        givenBalance("ACC-A", "10");
+        givenBalance("ACC-B", "200");
+        givenBalance("ACC-C", "500");
+        givenWithdrawal("ACC-B", Mono.error(new InsufficientFundsException("Insufficient funds")));
+        givenWithdrawal("ACC-A", Mono.error(new InsufficientFundsException("Insufficient funds")));
+        givenWithdrawal("ACC-C", completed("ACC-C", "400"));
+
+        StepVerifier.create(debitService.processTransaction(transaction(CARD_ID, "Compra")))
+                .assertNext(response -> assertEquals("ACC-C", response.getAccountId()))
+                .verifyComplete();
+
+        InOrder order = inOrder(transactionClient);
+        order.verify(transactionClient).processWithdrawal(eq("ACC-B"), any(), any());
+        order.verify(transactionClient).processWithdrawal(eq("ACC-A"), any(), any());
+        order.verify(transactionClient).processWithdrawal(eq("ACC-C"), any(), any());
+        // Position counts every account tried, across the snapshot pick and the fallback walk
+        assertEquals(3, fallbackDepth());
+    }
+
+    @Test
+    void snapshotWithoutCoveringAccountFailsWithoutWithdrawing() {
+        ReflectionTestUtils.setField(debitService, "withdrawalStrategy", WithdrawalStrategy.BALANCE_SNAPSHOT);
+        givenCard(card(CARD_ID, "ACC-A", "ACC-B"));
+        givenBalance("ACC-A", "10");
+        givenBalance("ACC-B", "20");
+
+        StepVerifier.create(debitService.processTransaction(transaction(CARD_ID, "Compra")))
+                .expectError(InsufficientFundsException.class)
+                .verify();
+
+        verify(transactionClient, never()).processWithdrawal(anyString(), any(), any());
+    }
+
+    @Test
+    void failedEventInsertDoesNotFailACompletedDebit() {
+        DebitEventProperties properties = new DebitEventProperties();
+        properties.setEnabled(true);
+        properties.setOutboxInsertRetries(1);
+        properties.setOutboxInsertBackoff(Duration.ofMillis(1));
+        properties.setOutboxRecoveryRetries(1);
+        OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+        when(outboxEventRepository.insert(any(OutboxEvent.class)))
+                .thenReturn(Mono.error(new DataAccessResourceFailureException("outbox unavailable")));
+        ReflectionTestUtils.setField(debitService, "debitEventPublisher",
+                new DebitEventPublisher(outboxEventRepository, new ObjectMapper().findAndRegisterModules(),
+                        properties, null));
+        givenCard(card(CARD_ID, "ACC-A"));
+        givenWithdrawal("ACC-A", completed("ACC-A", "900"));
+
+        StepVerifier.create(debitService.processTransaction(transaction(CARD_ID, "Compra")))
+                .assertNext(response -> assertEquals("ACC-A", response.getAccountId()))
+                .verifyComplete();
+
+        // Inline attempts plus the background retry, always with the same event
+        ArgumentCaptor<OutboxEvent> events = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, timeout(1000).times(4)).insert(events.capture());
+        assertEquals(1, events.getAllValues().stream().map(OutboxEvent::getId).distinct().count());
+    }
+
+    @Test
+    void batchKeepsTheOrderPerCardAndLoadsCardsOnce() {
+        Debit first = card("CARD-1", "ACC-1");
+        Debit second = card("CARD-2", "ACC-2");
+        when(debitCardCache.findAllById(any())).thenReturn(Flux.just(first, second));
+        when(transactionClient.processWithdrawal(anyString(), any(), any())).thenAnswer(invocation -> {
+            String accountId = invocation.getArgument(0);
+            // The first item of CARD-1 is slow; the next ones must still wait for it
+            Mono<TransactionResponse> result = completed(accountId, "1000");
+            return "item-0".equals(invocation.getArgument(2)) ? result.delayElement(Duration.ofMillis(50)) : result;
+        });
+
+        Flux<DebitTransactionRequest> batch = Flux.just(
+                transaction("CARD-1", "item-0"),
+                transaction("CARD-1", "item-1"),
+                transaction("CARD-2", "item-2"),
+                transaction("CARD-1", "item-3"),
+                transaction("CARD-9", "item-4"));
+
+        StepVerifier.create(debitService.processTransactionBatch(batch).collectList())
+                .assertNext(results -> {
+                    assertEquals(List.of(2L, 4L, 0L, 1L, 3L),
+                            results.stream().map(DebitBatchTransactionResult::getIndex).toList());
+                    DebitBatchTransactionResult missing = results.get(1);
+                    assertEquals("FAILED", missing.getStatus());
+                    assertEquals(400, missing.getErrorCode().intValue());
+                })
+                .verifyComplete();
+
+        InOrder order = inOrder(transactionClient);
+        order.verify(transactionClient).processWithdrawal(eq("ACC-1"), any(), eq("item-0"));
+        order.verify(transactionClient).processWithdrawal(eq("ACC-1"), any(), eq("item-1"));
+        order.verify(transactionClient).processWithdrawal(eq("ACC-1"), any(), eq("item-3"));
+        verify(debitCardCache, times(1)).findAllById(any());
+    }
+
+    @Test
+    void batchOverTheMaximumSizeIsRejected() {
+        ReflectionTestUtils.setField(debitService, "batchMaxSize", 2);
+
+        StepVerifier.create(debitService.processTransactionBatch(Flux.just(
+                        transaction("CARD-1", "item-0"),
+                        transaction("CARD-1", "item-1"),
+                        transaction("CARD-1", "item-2"))))
+                .expectError(BusinessRuleException.class)
+                .verify();
+
+        verify(transactionClient, never()).processWithdrawal(anyString(), any(), any());
+    }
+
+    @Test
+    void createDebitCardRunsBothValidationsConcurrently() {
+        Sinks.Empty<Void> customerCheck = Sinks.empty();
+        AtomicBoolean accountChecked = new AtomicBoolean();
+        when(debitValidator.validateAll(any(), any())).thenCallRealMethod();
+        when(debitValidator.validateCustomerIsActive("CUST-1")).thenReturn(customerCheck.asMono());
+        when(debitValidator.validateAccountIsActive("ACC-1"))
+                .thenReturn(Mono.<Void>empty().doOnSubscribe(subscription -> accountChecked.set(true)));
+
+        StepVerifier.create(debitService.createDebitCard(cardRequest()))
+                .then(() -> {
+                    // The account check started while the customer check is still running
+                    assertTrue(accountChecked.get());
+                    customerCheck.tryEmitError(new DebitException("Customer not found: CUST-1"));
+                })
+                .expectError(DebitException.class)
+                .verify();
+
+        verify(debitCardCache, never()).insertIfAbsent(any());
+    }
+
+    @Test
+    void createDebitCardReportsEveryViolationWhenCollectingAll() {
+        ReflectionTestUtils.setField(debitService, "validationMode", ValidationMode.COLLECT_ALL);
+        when(debitValidator.validateAll(any(), any())).thenCallRealMethod();
+        when(debitValidator.validateCustomerIsActive("CUST-1"))
+                .thenReturn(Mono.error(new BusinessRuleException("Customer is not active: CUST-1")));
+        when(debitValidator.validateAccountIsActive("ACC-1"))
+                .thenReturn(Mono.error(new BusinessRuleException("Account is not active: ACC-1")));
+
+        StepVerifier.create(debitService.createDebitCard(cardRequest()))
+                .expectErrorSatisfies(error -> assertEquals(
+                        List.of("Customer is not active: CUST-1", "Account is not active: ACC-1"),
+                        ((ValidationException) error).getViolations()))
+                .verify();
+
+        verify(debitCardCache, never()).insertIfAbsent(any());
+    }
+
+    @Test
+    void listingPassesTheCursorAndLimitThrough() {
+        DebitCardFilter filter = DebitCardFilter.builder().active(true).build();
+        String after = new ObjectId().toHexString();
+        when(debitRepository.findPage(any(), any(), anyInt())).thenReturn(Flux.empty());
+
+        StepVerifier.create(debitService.listDebitCards(filter, null, null)).verifyComplete();
+        StepVerifier.create(debitService.listDebitCards(filter, after, 1)).verifyComplete();
+        StepVerifier.create(debitService.listDebitCards(filter, after, 1000)).verifyComplete();
+
+        verify(debitRepository).findPage(filter, null, 100);
+        verify(debitRepository).findPage(filter, new ObjectId(after), 1);
+        verify(debitRepository).findPage(filter, new ObjectId(after), 1000);
+    }
+
+    @Test
+    void listingRejectsInvalidCursorsAndLimits() {
+        DebitCardFilter filter = DebitCardFilter.builder().build();
+
+        StepVerifier.create(debitService.listDebitCards(filter, "not-an-object-id", 10))
+                .expectError(BusinessRuleException.class)
+                .verify();
+        StepVerifier.create(debitService.listDebitCards(filter, null, 0))
+                .expectError(BusinessRuleException.class)
+                .verify();
+        StepVerifier.create(debitService.listDebitCards(filter, null, 1001))
+                .expectError(BusinessRuleException.class)
+                .verify();
+
+        verify(debitRepository, never()).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    void detachReportsTheCardsModified() {
+        when(debitCardCache.removeAssociatedAccountFromAll("ACC-1")).thenReturn(Mono.just(2L));
+
+        StepVerifier.create(debitService.detachAccountFromDebitCards("ACC-1"))
+                .assertNext(result -> {
+                    assertEquals("ACC-1", result.getAccountId());
+                    assertEquals(2L, result.getModifiedCards().longValue());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void lookupKeepsRequestOrderAndReportsMissesInline() {
+        Debit first = card("CARD-1", "ACC-1");
+        Debit second = card("CARD-2", "ACC-2");
+        Debit byCustomer = card("CARD-3", "ACC-3").toBuilder().customerId("CUST-1").build();
+        when(debitCardCache.findAllById(any())).thenReturn(Flux.just(first, second));
+        when(debitRepository.findByCustomerIdInAndActiveTrue(any())).thenReturn(Flux.just(byCustomer));
+
+        DebitCardLookupRequest request = new DebitCardLookupRequest()
+                .ids(List.of("CARD-2", "CARD-X", "CARD-1", "CARD-2"))
+                .customerIds(List.of("CUST-1", "CUST-9"));
+
+        StepVerifier.create(debitService.lookupDebitCards(request).collectList())
+                .assertNext(results -> {
+                    assertEquals(List.of("CARD-2:true", "CARD-X:false", "CARD-1:true", "CUST-1:true", "CUST-9:false"),
+                            results.stream().map(result -> result.getKey() + ":" + result.getFound()).toList());
+                    assertEquals(DebitCardLookupResult.KeyTypeEnum.CUSTOMER_ID, results.get(3).getKeyType());
+                    assertEquals("CARD-3", results.get(3).getCard().getId());
+                })
+                .verifyComplete();
+
+        // One $in query per key type, duplicates removed
+        verify(debitCardCache, times(1)).findAllById(List.of("CARD-2", "CARD-X", "CARD-1"));
+        verify(debitRepository, times(1)).findByCustomerIdInAndActiveTrue(List.of("CUST-1", "CUST-9"));
+    }
+
+    @Test
+    void lookupRejectsEmptyAndOversizedRequests() {
+        StepVerifier.create(debitService.lookupDebitCards(new DebitCardLookupRequest()))
+                .expectError(BusinessRuleException.class)
+                .verify();
+
+        List<String> ids = IntStream.range(0, 11).mapToObj(i -> "CARD-" + i).toList();
+        StepVerifier.create(debitService.lookupDebitCards(new DebitCardLookupRequest().ids(ids)))
+                .expectError(BusinessRuleException.class)
+                .verify();
+
+        verify(debitCardCache, never()).findAllById(any());
+    }
+
+    private void givenCard(Debit card) {
+        when(debitCardCache.findById(card.getId())).thenReturn(Mono.just(card));
+    }
+
+    private void givenBalance(String accountId, String balance) {
+        when(accountClient.getAccount(accountId)).thenReturn(Mono.just(AccountResponse.builder()
+                .id(accountId)
+                .balance(new BigDecimal(balance))
+                .active(true)
+                .build()));
+    }
+
+    private void givenWithdrawal(String accountId, Mono<TransactionResponse> outcome) {
+        when(transactionClient.processWithdrawal(eq(accountId), any(), any())).thenReturn(outcome);
+    }
+
+    private double fallbackDepth() {
+        return meterRegistry.get(DebitMetrics.FALLBACK_DEPTH).summary().totalAmount();
+    }
+
+    private static Mono<TransactionResponse> completed(String accountId, String balanceAfter) {
+        return Mono.just(TransactionResponse.builder()
+                .id("tx-" + accountId)
+                .accountId(accountId)
+                .amount(new BigDecimal("100"))
+                .status(TransactionStatus.COMPLETED)
+                .balanceAfter(new BigDecimal(balanceAfter))
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private static Debit card(String id, String... accounts) {
+        return Debit.builder()
+                .id(id)
+                .customerId("CUST-" + id)
+                .primaryAccountId(accounts[0])
+                .associatedAccounts(List.of(accounts))
+                .active(true)
+                .build();
+    }
+
+    private static CreateDebitCardRequest cardRequest() {
+        return new CreateDebitCardRequest()
+                .customerId("CUST-1")
+                .primaryAccountId("ACC-1");
+    }
+
+    private static DebitTransactionRequest transaction(String debitCardId, String description) {
+        return new DebitTransactionRequest()
+                .debitCardId(debitCardId)
+                .amount(100.0)
+                .description(description);
+    }
+}
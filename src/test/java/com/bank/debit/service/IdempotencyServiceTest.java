@@ -0,0 +1,142 @@
+package com.bank.debit.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bank.debit.exception.IdempotencyConflictException;
+import com.bank.debit.exception.InsufficientFundsException;
+import com.bank.debit.model.DebitTransactionRequest;
+import com.bank.debit.model.DebitTransactionResponse;
+import com.bank.debit.model.entity.IdempotencyRecord;
+import com.bank.debit.model.enums.IdempotencyStatus;
+import com.bank.debit.repository.IdempotencyRecordRepository;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class IdempotencyServiceTest {
+
+    private static final String KEY = "5f1c2a9e-7d4b-4c1e-9a3f-2b8e6d0c4a17";
+
+    private final DebitTransactionRequest request = new DebitTransactionRequest()
+            .debitCardId("CARD456789")
+            .amount(100.0)
+            .description("Compra");
+    private final DebitTransactionResponse response = new DebitTransactionResponse()
+            .transactionId("tx-1")
+            .debitCardId("CARD456789")
+            .accountId("ACC-1")
+            .amount(100.0)
+            .description("Compra");
+
+    private IdempotencyRecordRepository repository;
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(IdempotencyRecordRepository.class);
+        when(repository.insert(any(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(repository.save(any(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(repository.deleteById(anyString())).thenReturn(Mono.empty());
+        service = new IdempotencyService(repository, Duration.ofMinutes(10), 100, 3, Duration.ofMillis(1));
+    }
+
+    @Test
+    void ambiguousFailureKeepsTheKeyAsUnknownAndRetriesGetConflict() {
+        StepVerifier.create(service.execute(KEY, request, () -> Mono.error(new TimeoutException())))
+                .expectError(TimeoutException.class)
+                .verify();
+
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).save(saved.capture());
+        assertEquals(IdempotencyStatus.UNKNOWN, saved.getValue().getStatus());
+        verify(repository, never()).deleteById(anyString());
+
+        AtomicInteger charges = new AtomicInteger();
+        StepVerifier.create(service.execute(KEY, request, () -> {
+                    charges.incrementAndGet();
+                    return Mono.just(response);
+                }))
+                .expectError(IdempotencyConflictException.class)
+                .verify();
+        assertEquals(0, charges.get());
+    }
+
+    @Test
+    void unknownOutcomeStoredByAnotherInstanceIsAConflict() {
+        when(repository.insert(any(IdempotencyRecord.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("duplicate key")));
+        when(repository.findById(KEY)).thenReturn(Mono.just(IdempotencyRecord.builder()
+                .key(KEY)
+                .requestHash(service.hash(request))
+                .status(IdempotencyStatus.UNKNOWN)
+                .build()));
+
+        StepVerifier.create(service.execute(KEY, request, () -> Mono.just(response)))
+                .expectError(IdempotencyConflictException.class)
+                .verify();
+    }
+
+    @Test
+    void definitiveBusinessFailureReleasesTheKey() {
+        StepVerifier.create(service.execute(KEY, request,
+                        () -> Mono.error(new InsufficientFundsException("Insufficient funds"))))
+                .expectError(InsufficientFundsException.class)
+                .verify();
+
+        verify(repository).deleteById(KEY);
+        verify(repository, never()).save(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void completedOutcomeSaveIsRetried() {
+        AtomicInteger saves = new AtomicInteger();
+        when(repository.save(any(IdempotencyRecord.class))).thenAnswer(invocation -> Mono.defer(() ->
+                saves.incrementAndGet() < 3
+                        ? Mono.error(new DataAccessResourceFailureException("primary stepped down"))
+                        : Mono.just(invocation.<IdempotencyRecord>getArgument(0))));
+
+        StepVerifier.create(service.execute(KEY, request, () -> Mono.just(response)))
+                .expectNext(response)
+                .verifyComplete();
+
+        assertEquals(3, saves.get());
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository, times(1)).save(saved.capture());
+        assertEquals(IdempotencyStatus.COMPLETED, saved.getValue().getStatus());
+    }
+
+    @Test
+    void lostOutcomeSaveStillReplaysOnThisInstance() {
+        when(repository.save(any(IdempotencyRecord.class)))
+                .thenReturn(Mono.error(new DataAccessResourceFailureException("down")));
+
+        StepVerifier.create(service.execute(KEY, request, () -> Mono.just(response)))
+                .expectNext(response)
+                .verifyComplete();
+
+        AtomicInteger charges = new AtomicInteger();
+        StepVerifier.create(service.execute(KEY, request, () -> {
+                    charges.incrementAndGet();
+                    return Mono.just(response);
+                }))
+                .expectNextMatches(replayed -> "tx-1".equals(replayed.getTransactionId()))
+                .verifyComplete();
+        assertEquals(0, charges.get());
+    }
+}
@@ -0,0 +1,267 @@
+package com.bank.debit.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.bank.debit.cache.BalanceHintCache;
+import com.bank.debit.cache.DebitCardCache;
+import com.bank.debit.cache.ReactiveLookupCache;
+import com.bank.debit.client.AccountClient;
+import com.bank.debit.client.CustomerClient;
+import com.bank.debit.client.RequestHedger;
+import com.bank.debit.client.TransactionClient;
+import com.bank.debit.config.DebitEventProperties;
+import com.bank.debit.config.HedgingProperties;
+import com.bank.debit.config.StatusProjectionProperties;
+import com.bank.debit.config.WebClientConfig;
+import com.bank.debit.config.WebClientPoolProperties;
+import com.bank.debit.event.DebitEventPublisher;
+import com.bank.debit.logging.TransactionLogSampler;
+import com.bank.debit.mapper.DebitMapper;
+import com.bank.debit.metrics.DebitMetrics;
+import com.bank.debit.model.DebitTransactionRequest;
+import com.bank.debit.model.dto.AccountResponse;
+import com.bank.debit.model.dto.CustomerResponse;
+import com.bank.debit.model.entity.Debit;
+import com.bank.debit.model.enums.ValidationMode;
+import com.bank.debit.model.enums.WithdrawalStrategy;
+import com.bank.debit.projection.StatusProjectionService;
+import com.bank.debit.service.DebitService;
+import com.bank.debit.validator.DebitValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.handler.PropagatingSenderTracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.actuate.metrics.web.reactive.client.ObservationWebClientCustomizer;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.DefaultClientRequestObservationConvention;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+/**
+ * Fan-out of a debit request to downstream services through the production WebClient
+ * builders, validator and withdrawal path, exported to an in-memory span exporter
+ * instead of a collector.
+ */
+class FanOutTracingTest {
+
+    private static final String SHORT_ACCOUNT = "acc-short";
+    private static final String FUNDED_ACCOUNT = "acc-funded";
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+    private final List<String> traceparents = new CopyOnWriteArrayList<>();
+
+    private SdkTracerProvider tracerProvider;
+    private ObservationRegistry observationRegistry;
+    private DisposableServer server;
+    private WebClientConfig webClientConfig;
+    private DebitCardCache debitCardCache;
+    private DebitValidator debitValidator;
+    private DebitService debitService;
+
+    @BeforeEach
+    void setUp() {
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build();
+        Tracer otelTracer = tracerProvider.get("debit-test");
+        OtelTracer tracer = new OtelTracer(otelTracer, new OtelCurrentTraceContext(), event -> { });
+        OtelPropagator propagator = new OtelPropagator(
+                ContextPropagators.create(W3CTraceContextPropagator.getInstance()), otelTracer);
+
+        observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(
+                new ObservationHandler.FirstMatchingCompositeObservationHandler(
+                        new PropagatingSenderTracingObservationHandler<>(tracer, propagator),
+                        new DefaultTracingObservationHandler(tracer)));
+
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/api/accounts/{id}", (request, response) -> {
+                            traceparents.add(request.requestHeaders().get("traceparent"));
+                            return response.header("Content-Type", "application/json")
+                                    .sendString(Mono.just("{\"id\":\"" + request.param("id")
+                                            + "\",\"balance\":500,\"active\":true}"));
+                        })
+                        .get("/api/customers/{id}", (request, response) -> {
+                            traceparents.add(request.requestHeaders().get("traceparent"));
+                            return response.header("Content-Type", "application/json")
+                                    .sendString(Mono.just("{\"id\":\"" + request.param("id") + "\",\"active\":true}"));
+                        })
+                        .post("/api/transactions/withdrawal", (request, response) -> {
+                            traceparents.add(request.requestHeaders().get("traceparent"));
+                            return response.header("Content-Type", "application/json")
+                                    .sendString(request.receive().aggregate().asString()
+                                            .map(body -> body.contains(SHORT_ACCOUNT)
+                                                    ? "{\"status\":\"FAILED\",\"errorMessage\":\"Insufficient funds\"}"
+                                                    : "{\"id\":\"tx-1\",\"status\":\"COMPLETED\",\"balanceAfter\":400,"
+                                                            + "\"createdAt\":\"2024-01-15T10:30:00\"}"));
+                        }))
+                .bindNow();
+
+        // The builders the application uses, with Boot's observation customizer applied
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("observationWebClientCustomizer", new ObservationWebClientCustomizer(
+                observationRegistry, new DefaultClientRequestObservationConvention()));
+        webClientConfig = new WebClientConfig(beanFactory.getBeanProvider(WebClientCustomizer.class));
+        WebClientPoolProperties poolProperties = new WebClientPoolProperties();
+        String baseUrl = "http://localhost:" + server.port();
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DebitMetrics debitMetrics = new DebitMetrics(meterRegistry);
+        RequestHedger requestHedger = new RequestHedger(new HedgingProperties(), meterRegistry);
+        AccountClient accountClient = new AccountClient(
+                webClientConfig.accountWebClientBuilder(poolProperties), baseUrl, debitMetrics, requestHedger);
+        CustomerClient customerClient = new CustomerClient(
+                webClientConfig.customerWebClientBuilder(poolProperties), baseUrl, debitMetrics, requestHedger);
+        TransactionClient transactionClient = new TransactionClient(
+                webClientConfig.transactionWebClientBuilder(poolProperties), baseUrl, false,
+                "/api/transactions/withdrawal/bulk", 50, Duration.ofMillis(5), 8, Duration.ofMinutes(5),
+                Duration.ofSeconds(5), debitMetrics);
+
+        ReactiveLookupCache<CustomerResponse> customerLookupCache = new ReactiveLookupCache<>(
+                "customerLookup", Duration.ZERO, 1, customerClient::getCustomerById, meterRegistry);
+        ReactiveLookupCache<AccountResponse> accountLookupCache = new ReactiveLookupCache<>(
+                "accountLookup", Duration.ZERO, 1, accountClient::getAccount, meterRegistry);
+        StatusProjectionService statusProjectionService = new StatusProjectionService(
+                null, null, new StatusProjectionProperties(), customerLookupCache, accountLookupCache);
+        debitValidator = new DebitValidator(
+                accountLookupCache, customerLookupCache, statusProjectionService, observationRegistry);
+
+        debitCardCache = mock(DebitCardCache.class);
+        debitService = new DebitService(accountClient, customerClient, null, debitValidator, new DebitMapper(),
+                transactionClient, new BalanceHintCache(Duration.ZERO, 1, false), debitCardCache, null,
+                new DebitEventPublisher(null, new ObjectMapper(), new DebitEventProperties(), null),
+                debitMetrics, observationRegistry, new TransactionLogSampler(0));
+        ReflectionTestUtils.setField(debitService, "withdrawalStrategy", WithdrawalStrategy.SEQUENTIAL);
+
+        // The first call through a cold client can outlast the clients' own 2s timeout
+        Mono.when(accountClient.getAccount(FUNDED_ACCOUNT), customerClient.getCustomerById("cust-0"))
+                .retry(3)
+                .block(Duration.ofSeconds(30));
+        exporter.reset();
+        traceparents.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        webClientConfig.disposeConnectionProviders();
+        server.disposeNow();
+        tracerProvider.close();
+    }
+
+    @Test
+    void withdrawalAttemptsAreChildSpansOfTheRequestAndParentTheirPosts() {
+        when(debitCardCache.findById("CARD456789"))
+                .thenReturn(Mono.just(card(List.of(SHORT_ACCOUNT, FUNDED_ACCOUNT))));
+        DebitTransactionRequest request = new DebitTransactionRequest()
+                .debitCardId("CARD456789")
+                .amount(100.0)
+                .description("Compra");
+
+        Observation parent = Observation.start("http.server.requests", observationRegistry);
+        StepVerifier.create(debitService.processTransaction(request)
+                        .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, parent))
+                        .doOnTerminate(parent::stop))
+                .assertNext(response -> assertThat(response.getAccountId()).isEqualTo(FUNDED_ACCOUNT))
+                .verifyComplete();
+
+        SpanData root = root();
+        List<SpanData> attempts = named("debit.withdrawal.attempt");
+        List<SpanData> posts = named("http post");
+
+        assertThat(attempts)
+                .hasSize(2)
+                .allSatisfy(attempt -> assertThat(attempt.getParentSpanId()).isEqualTo(root.getSpanId()));
+        assertThat(posts).hasSize(2);
+        assertThat(posts.stream().map(SpanData::getParentSpanId))
+                .containsExactlyInAnyOrderElementsOf(attempts.stream().map(SpanData::getSpanId).toList());
+        assertThat(traceparents)
+                .hasSize(2)
+                .allSatisfy(header -> assertThat(header).contains(root.getTraceId()));
+    }
+
+    @Test
+    void validationRulesAreChildSpansOfTheRequestAndParentTheirLookups() {
+        Observation parent = Observation.start("http.server.requests", observationRegistry);
+        StepVerifier.create(debitValidator.validateAll(ValidationMode.COLLECT_ALL, List.of(
+                                debitValidator.validateCustomerIsActive("cust-1"),
+                                debitValidator.validateAccountIsActive(FUNDED_ACCOUNT)))
+                        .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, parent))
+                        .doOnTerminate(parent::stop))
+                .verifyComplete();
+
+        SpanData root = root();
+        List<SpanData> rules = named("debit.validation");
+        List<SpanData> lookups = named("http get");
+
+        assertThat(rules)
+                .hasSize(2)
+                .allSatisfy(rule -> assertThat(rule.getParentSpanId()).isEqualTo(root.getSpanId()));
+        assertThat(rules.stream().map(rule -> rule.getAttributes().get(AttributeKey.stringKey("rule"))))
+                .containsExactlyInAnyOrder("customer_active", "account_active");
+        assertThat(lookups.stream().map(SpanData::getParentSpanId))
+                .containsExactlyInAnyOrderElementsOf(rules.stream().map(SpanData::getSpanId).toList());
+        assertThat(traceparents)
+                .hasSize(2)
+                .allSatisfy(header -> assertThat(header).contains(root.getTraceId()));
+    }
+
+    private SpanData root() {
+        return exporter.getFinishedSpanItems().stream()
+                .filter(span -> !span.getParentSpanContext().isValid())
+                .reduce((first, second) -> {
+                    throw new AssertionError("More than one root span: " + first + ", " + second);
+                })
+                .orElseThrow();
+    }
+
+    private List<SpanData> named(String name) {
+        return exporter.getFinishedSpanItems().stream()
+                .filter(span -> span.getName().equals(name))
+                .toList();
+    }
+
+    private static Debit card(List<String> accounts) {
+        return Debit.builder()
+                .id("CARD456789")
+                .customerId("cust-1")
+                .primaryAccountId(accounts.get(0))
+                .associatedAccounts(new ArrayList<>(accounts))
+                .cardNumber("****-****-****-1234")
+                .createdAt(LocalDateTime.now())
+                .active(true)
+                .version(0L)
+                .build();
+    }
+}